@@ -4,11 +4,19 @@ import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.flyway.FlywayConfigurationCustomizer;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 @Configuration
+@EnableScheduling
 public class AppConfig {
 
     @Bean
@@ -22,4 +30,38 @@ public class AppConfig {
         objectMapper.configure(SerializationFeature.FAIL_ON_EMPTY_BEANS, false);
         return objectMapper;
     }
+
+    // Group inserts and updates into JDBC batches and hand out pooled sequence
+    // values from the low end; explicit spring.jpa.properties still win
+    @Bean
+    public HibernatePropertiesCustomizer jdbcBatchingCustomizer(
+            @Value("${spring.app.jdbcBatchSize:50}") int jdbcBatchSize) {
+        return properties -> {
+            properties.putIfAbsent(AvailableSettings.STATEMENT_BATCH_SIZE, jdbcBatchSize);
+            properties.putIfAbsent(AvailableSettings.ORDER_INSERTS, true);
+            properties.putIfAbsent(AvailableSettings.ORDER_UPDATES, true);
+            properties.putIfAbsent(AvailableSettings.PREFERRED_POOLED_OPTIMIZER, "pooled-lo");
+            // Flyway owns the schema; Hibernate only checks that the mappings match it
+            properties.put(AvailableSettings.HBM2DDL_AUTO, "validate");
+        };
+    }
+
+    // Databases created by Hibernate before migrations existed already hold the
+    // V1 schema, so they are baselined there and only receive later migrations
+    @Bean
+    public FlywayConfigurationCustomizer flywayBaselineCustomizer() {
+        return configuration -> configuration.baselineOnMigrate(true).baselineVersion("1");
+    }
+
+    // Streamed responses such as the task export outlive the container's default async timeout
+    @Bean
+    public WebMvcConfigurer asyncTimeoutConfigurer(
+            @Value("${spring.app.asyncRequestTimeoutMs:3600000}") long asyncRequestTimeoutMs) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+                configurer.setDefaultTimeout(asyncRequestTimeoutMs);
+            }
+        };
+    }
 }
@@ -1,7 +1,9 @@
 package com.ndungutse.project_tracker.config;
 
+import com.ndungutse.project_tracker.security.AdaptiveBCryptPasswordEncoder;
 import com.ndungutse.project_tracker.security.CustomUserDetailsService;
 import com.ndungutse.project_tracker.security.JwtAuthenticationFilter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -13,15 +15,21 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import java.util.HashMap;
+import java.util.Map;
+
 @Configuration
 @EnableWebSecurity
 @EnableMethodSecurity
 public class SecurityConfig {
 
+    private static final String PASSWORD_ENCODER_ID = "bcrypt";
+
     private final CustomUserDetailsService userDetailsService;
     private final JwtAuthenticationFilter jwtAuthFilter;
 
@@ -31,7 +39,8 @@ public class SecurityConfig {
     }
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, AuthenticationProvider authenticationProvider)
+            throws Exception {
         http
                 .csrf(csrf -> csrf.disable())
                 .authorizeHttpRequests(auth -> auth
@@ -41,23 +50,40 @@ public class SecurityConfig {
                         .requestMatchers("/api/v1/projects/**").authenticated()
                         .anyRequest().authenticated())
                 .sessionManagement(sess -> sess.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
-                .authenticationProvider(authenticationProvider())
+                .authenticationProvider(authenticationProvider)
                 .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class);
 
         return http.build();
     }
 
     @Bean
-    public AuthenticationProvider authenticationProvider() {
+    public AuthenticationProvider authenticationProvider(PasswordEncoder passwordEncoder) {
         DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
         provider.setUserDetailsService(userDetailsService);
-        provider.setPasswordEncoder(passwordEncoder());
+        provider.setPasswordEncoder(passwordEncoder);
         return provider;
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(
+            @Value("${spring.app.passwordHashCost:0}") int passwordHashCost,
+            @Value("${spring.app.passwordHashTargetMs:250}") long passwordHashTargetMs,
+            @Value("${spring.app.passwordHashMinCost:10}") int passwordHashMinCost,
+            @Value("${spring.app.passwordHashMaxCost:16}") int passwordHashMaxCost) {
+        // A fixed cost wins; otherwise measure this machine to hit the target latency
+        int cost = passwordHashCost > 0
+                ? passwordHashCost
+                : AdaptiveBCryptPasswordEncoder.calibrate(passwordHashTargetMs, passwordHashMinCost,
+                        passwordHashMaxCost);
+
+        // New hashes are stored as {bcrypt}$2a$<cost>$..., so algorithm and cost travel with the hash
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put(PASSWORD_ENCODER_ID, new AdaptiveBCryptPasswordEncoder(cost));
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder(PASSWORD_ENCODER_ID, encoders);
+
+        // Hashes written before the prefix existed are plain BCrypt; they still verify and get upgraded on login
+        encoder.setDefaultPasswordEncoderForMatches(new BCryptPasswordEncoder());
+        return encoder;
     }
 
     @Bean
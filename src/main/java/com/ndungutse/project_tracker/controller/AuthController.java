@@ -2,6 +2,7 @@ package com.ndungutse.project_tracker.controller;
 
 import com.ndungutse.project_tracker.dto.LoginRequest;
 import com.ndungutse.project_tracker.dto.LoginResponse;
+import com.ndungutse.project_tracker.dto.RefreshTokenRequest;
 import com.ndungutse.project_tracker.dto.RegisterRequest;
 import com.ndungutse.project_tracker.service.AuthService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -10,12 +11,15 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -45,12 +49,40 @@ public class AuthController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Successfully authenticated", content = @Content(mediaType = "application/json", schema = @Schema(implementation = LoginResponse.class))),
             @ApiResponse(responseCode = "401", description = "Invalid credentials", content = @Content),
+            @ApiResponse(responseCode = "429", description = "Too many login attempts", content = @Content),
             @ApiResponse(responseCode = "400", description = "Invalid input", content = @Content)
     })
     @PostMapping("/login")
-    public ResponseEntity<?> login(@Valid @RequestBody LoginRequest loginRequest) {
-        LoginResponse loginResponse = authService.login(loginRequest);
+    public ResponseEntity<?> login(@Valid @RequestBody LoginRequest loginRequest, HttpServletRequest request) {
+        LoginResponse loginResponse = authService.login(loginRequest, request.getRemoteAddr());
         return ResponseEntity.ok(loginResponse);
 
     }
-}
\ No newline at end of file
+
+    @Operation(summary = "Refresh", description = "Exchanges a refresh token for a new JWT token and refresh token")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully refreshed", content = @Content(mediaType = "application/json", schema = @Schema(implementation = LoginResponse.class))),
+            @ApiResponse(responseCode = "401", description = "Invalid, expired or reused refresh token", content = @Content),
+            @ApiResponse(responseCode = "400", description = "Invalid input", content = @Content)
+    })
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refresh(@Valid @RequestBody RefreshTokenRequest refreshTokenRequest) {
+        LoginResponse loginResponse = authService.refresh(refreshTokenRequest);
+        return ResponseEntity.ok(loginResponse);
+    }
+
+    @Operation(summary = "Logout", description = "Ends the session of the presented JWT token; its refresh token stops working")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Successfully logged out", content = @Content),
+            @ApiResponse(responseCode = "401", description = "Missing or invalid token", content = @Content)
+    })
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        if (authorization == null || !authorization.startsWith("Bearer ")) {
+            return new ResponseEntity<>(HttpStatus.UNAUTHORIZED);
+        }
+        authService.logout(authorization.substring(7));
+        return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+    }
+}
@@ -1,8 +1,15 @@
 package com.ndungutse.project_tracker.controller;
 
+import com.ndungutse.project_tracker.dto.CursorPage;
+import com.ndungutse.project_tracker.dto.FieldSet;
 import com.ndungutse.project_tracker.dto.PageResponse;
 import com.ndungutse.project_tracker.dto.ProjectDTO;
+import com.ndungutse.project_tracker.dto.ProjectDeletionJob;
+import com.ndungutse.project_tracker.dto.ProjectStatsDTO;
+import com.ndungutse.project_tracker.dto.ProjectSummaryDTO;
+import com.ndungutse.project_tracker.service.ProjectDeletionService;
 import com.ndungutse.project_tracker.service.ProjectService;
+import com.ndungutse.project_tracker.service.ProjectStatsService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -16,6 +23,8 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.net.URI;
+import java.util.Map;
 import java.util.Optional;
 
 @RestController
@@ -23,10 +32,19 @@ import java.util.Optional;
 @Tag(name = "Project", description = "Project management APIs")
 public class ProjectController {
 
+    private static final String FIELDS_DOC = "Comma-separated project attributes to return, e.g. id,name; all when omitted";
+    private static final String CURSOR_DOC = "Opaque cursor from the previous slice's nextCursor; enables slice pagination";
+    private static final String SORT_DOC = "Sort key for slice pagination: id (default), deadline, status or name; enables slice pagination";
+
     private final ProjectService projectService;
+    private final ProjectStatsService projectStatsService;
+    private final ProjectDeletionService projectDeletionService;
 
-    public ProjectController(ProjectService projectService) {
+    public ProjectController(ProjectService projectService, ProjectStatsService projectStatsService,
+            ProjectDeletionService projectDeletionService) {
         this.projectService = projectService;
+        this.projectStatsService = projectStatsService;
+        this.projectDeletionService = projectDeletionService;
     }
 
     // Create a new project
@@ -45,18 +63,39 @@ public class ProjectController {
     }
 
     // Get all projects with pagination
-    @Operation(summary = "Get all projects", description = "Returns a paginated list of all projects")
+    @Operation(summary = "Get all projects", description = "Returns a paginated list of all projects. With cursor or sort, returns a slice with hasNext and nextCursor instead of page totals, which needs no count query")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Successfully retrieved projects", content = @Content(mediaType = "application/json", schema = @Schema(implementation = PageResponse.class)))
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved projects", content = @Content(mediaType = "application/json", schema = @Schema(implementation = PageResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid sort, cursor or fields", content = @Content)
     })
     @GetMapping
-    public ResponseEntity<PageResponse<ProjectDTO>> getAllProjects(
+    public ResponseEntity<?> getAllProjects(
             @Parameter(description = "Page number (0-indexed, defaults to 0)") @RequestParam(defaultValue = "0") int page,
-            @Parameter(description = "Number of items per page (defaults to 10)") @RequestParam(defaultValue = "10") int size) {
+            @Parameter(description = "Number of items per page (defaults to 10)") @RequestParam(defaultValue = "10") int size,
+            @Parameter(description = FIELDS_DOC) @RequestParam(required = false) String fields,
+            @Parameter(description = "Add open, completed and overdue task counts and the earliest open due date to each project") @RequestParam(defaultValue = "false") boolean summary,
+            @Parameter(description = CURSOR_DOC) @RequestParam(required = false) String cursor,
+            @Parameter(description = SORT_DOC) @RequestParam(required = false) String sort,
+            @Parameter(description = "Add estimatedTotal, the approximate number of projects from table statistics, to a slice") @RequestParam(defaultValue = "false") boolean estimateTotal) {
+        if (cursor != null || sort != null) {
+            if (summary) {
+                FieldSet<ProjectSummaryDTO> fieldSet = FieldSet.parse(fields, ProjectSummaryDTO.SUMMARY_FIELDS);
+                return ResponseEntity.ok(slice(projectService.getSliceWithTaskSummary(cursor, size, sort, estimateTotal), fieldSet));
+            }
+            FieldSet<ProjectDTO> fieldSet = FieldSet.parse(fields, ProjectDTO.FIELDS);
+            return ResponseEntity.ok(slice(projectService.getSlice(cursor, size, sort, estimateTotal), fieldSet));
+        }
+
         int pageToGet = page == 0 ? page : page - 1;
+        if (summary) {
+            FieldSet<ProjectSummaryDTO> fieldSet = FieldSet.parse(fields, ProjectSummaryDTO.SUMMARY_FIELDS);
+            Page<ProjectSummaryDTO> projects = projectService.getAllWithTaskSummary(pageToGet, size);
+            return new ResponseEntity<>(pageResponse(projects, fieldSet), HttpStatus.OK);
+        }
+
+        FieldSet<ProjectDTO> fieldSet = FieldSet.parse(fields, ProjectDTO.FIELDS);
         Page<ProjectDTO> projects = projectService.getAll(pageToGet, size);
-        PageResponse<ProjectDTO> response = new PageResponse<>(projects);
-        return new ResponseEntity<>(response, HttpStatus.OK);
+        return new ResponseEntity<>(pageResponse(projects, fieldSet), HttpStatus.OK);
     }
 
     // Get a project by ID
@@ -66,10 +105,26 @@ public class ProjectController {
             @ApiResponse(responseCode = "404", description = "Project not found", content = @Content)
     })
     @GetMapping("/{id}")
-    public ResponseEntity<ProjectDTO> getProjectById(
-            @Parameter(description = "ID of the project to retrieve", required = true) @PathVariable Long id) {
+    public ResponseEntity<?> getProjectById(
+            @Parameter(description = "ID of the project to retrieve", required = true) @PathVariable Long id,
+            @Parameter(description = FIELDS_DOC) @RequestParam(required = false) String fields) {
+        FieldSet<ProjectDTO> fieldSet = FieldSet.parse(fields, ProjectDTO.FIELDS);
         Optional<ProjectDTO> project = projectService.getById(id);
-        return project.map(value -> new ResponseEntity<>(value, HttpStatus.OK))
+        return project.<ResponseEntity<?>>map(value -> new ResponseEntity<>(fieldSet == null ? value : fieldSet.apply(value), HttpStatus.OK))
+                .orElseGet(() -> new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+
+    // Get the task counters of a project
+    @Operation(summary = "Get project task statistics", description = "Returns the task totals, completion and per-assignee open counts of a project")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved statistics", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProjectStatsDTO.class))),
+            @ApiResponse(responseCode = "404", description = "Project not found", content = @Content)
+    })
+    @GetMapping("/{id}/stats")
+    public ResponseEntity<ProjectStatsDTO> getProjectStats(
+            @Parameter(description = "ID of the project", required = true) @PathVariable Long id) {
+        return projectStatsService.getStats(id)
+                .map(stats -> new ResponseEntity<>(stats, HttpStatus.OK))
                 .orElseGet(() -> new ResponseEntity<>(HttpStatus.NOT_FOUND));
     }
 
@@ -86,7 +141,7 @@ public class ProjectController {
     public ResponseEntity<ProjectDTO> updateProject(
             @Parameter(description = "ID of the project to update", required = true) @PathVariable Long id,
             @Parameter(description = "Updated project data", required = true) @RequestBody ProjectDTO projectDTO) {
-        if (projectService.exists(id)) {
+        if (!projectService.exists(id)) {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
 
@@ -95,21 +150,60 @@ public class ProjectController {
     }
 
     // Delete a project
-    @Operation(summary = "Delete a project", description = "Deletes a project based on the provided ID")
+    @Operation(summary = "Delete a project", description = "Deletes a project and its tasks based on the provided ID")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "204", description = "Project deleted successfully", content = @Content),
+            @ApiResponse(responseCode = "202", description = "Deletion queued as a background job", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProjectDeletionJob.class))),
+            @ApiResponse(responseCode = "429", description = "Too many deletions already queued", content = @Content),
             @ApiResponse(responseCode = "404", description = "Project not found", content = @Content),
             @ApiResponse(responseCode = "403", description = "Access denied - Only MANAGER or ADMIN roles can delete projects", content = @Content)
     })
     @DeleteMapping("/{id}")
     @PreAuthorize("hasAnyRole('MANAGER', 'ADMIN')")
-    public ResponseEntity<Void> deleteProject(
-            @Parameter(description = "ID of the project to delete", required = true) @PathVariable Long id) {
-        if (projectService.exists(id)) {
+    public ResponseEntity<?> deleteProject(
+            @Parameter(description = "ID of the project to delete", required = true) @PathVariable Long id,
+            @Parameter(description = "Delete in the background and return a job to poll, for projects with many tasks") @RequestParam(defaultValue = "false") boolean async) {
+        if (!projectService.exists(id)) {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
 
+        if (async) {
+            ProjectDeletionJob job = projectDeletionService.start(id);
+            return ResponseEntity.accepted().location(URI.create("/api/v1/projects/deletions/" + job.id())).body(job);
+        }
+
         projectService.delete(id);
         return new ResponseEntity<>(HttpStatus.NO_CONTENT);
     }
+
+    // Get the progress of a background project deletion
+    @Operation(summary = "Get a project deletion job", description = "Returns the status and deleted task count of a background project deletion")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved the job", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProjectDeletionJob.class))),
+            @ApiResponse(responseCode = "404", description = "Job not found or expired", content = @Content)
+    })
+    @GetMapping("/deletions/{jobId}")
+    @PreAuthorize("hasAnyRole('MANAGER', 'ADMIN')")
+    public ResponseEntity<ProjectDeletionJob> getProjectDeletionJob(
+            @Parameter(description = "ID of the deletion job", required = true) @PathVariable String jobId) {
+        return projectDeletionService.getJob(jobId)
+                .map(job -> new ResponseEntity<>(job, HttpStatus.OK))
+                .orElseGet(() -> new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+
+    // Page envelope holding either whole projects or only the requested fields
+    private static <T> PageResponse<?> pageResponse(Page<T> projects, FieldSet<T> fieldSet) {
+        return fieldSet == null ? new PageResponse<>(projects) : new PageResponse<>(projects.map(fieldSet::apply));
+    }
+
+    // Slice holding either whole projects or only the requested fields
+    private static <T> CursorPage<?> slice(CursorPage<T> projects, FieldSet<T> fieldSet) {
+        if (fieldSet == null) {
+            return projects;
+        }
+        CursorPage<Map<String, Object>> slice = new CursorPage<>(projects.getContent().stream().map(fieldSet::apply).toList(),
+                projects.getSize(), projects.getNextCursor());
+        slice.setEstimatedTotal(projects.getEstimatedTotal());
+        return slice;
+    }
 }
@@ -1,8 +1,15 @@
 package com.ndungutse.project_tracker.controller;
 
+import com.ndungutse.project_tracker.dto.CursorPage;
+import com.ndungutse.project_tracker.dto.SideLoaded;
+import com.ndungutse.project_tracker.dto.TaskBatchResult;
+import com.ndungutse.project_tracker.dto.TaskBulkUpdateRequest;
+import com.ndungutse.project_tracker.dto.TaskBulkUpdateResult;
 import com.ndungutse.project_tracker.dto.TaskDTO;
+import com.ndungutse.project_tracker.dto.TaskSearchCriteria;
+import com.ndungutse.project_tracker.dto.TaskView;
+import com.ndungutse.project_tracker.service.TaskExportService;
 import com.ndungutse.project_tracker.service.TaskService;
-import com.ndungutse.project_tracker.security.SecurityUtil;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -11,24 +18,40 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/v1/tasks")
 @Tag(name = "Task", description = "Task management APIs")
 public class TaskController {
 
+        private static final String CURSOR_DOC = "Opaque cursor from the previous page's nextCursor; enables cursor pagination";
+        private static final String SIZE_DOC = "Number of tasks per page; enables cursor pagination";
+        private static final String SORT_DOC = "Sort key for cursor pagination: id (default) or dueDate";
+        private static final String FIELDS_DOC = "Comma-separated task attributes to return, e.g. id,title,status; all when omitted";
+        private static final String INCLUDE_DOC = "Comma-separated associations to embed: project, assignee; none when omitted";
+        private static final String SHAPE_DOC = "embedded (default) nests included associations in each task; normalized lists each distinct one once under included";
+
+        private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
         private final TaskService taskService;
-        private final SecurityUtil securityUtil;
+        private final TaskExportService taskExportService;
 
-        public TaskController(TaskService taskService, SecurityUtil securityUtil) {
+        public TaskController(TaskService taskService, TaskExportService taskExportService) {
                 this.taskService = taskService;
-                this.securityUtil = securityUtil;
+                this.taskExportService = taskExportService;
         }
 
         // Create a new task
@@ -45,53 +68,144 @@ public class TaskController {
                                 .orElseGet(() -> new ResponseEntity<>(HttpStatus.BAD_REQUEST));
         }
 
+        // Create many tasks in one request
+        @Operation(summary = "Create tasks in bulk", description = "Creates every valid task in the list and reports the outcome of each one at its index")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "201", description = "At least one task was created", content = @Content(mediaType = "application/json", schema = @Schema(implementation = TaskBatchResult.class))),
+                        @ApiResponse(responseCode = "400", description = "No task could be created, or the batch is too large", content = @Content(mediaType = "application/json", schema = @Schema(implementation = TaskBatchResult.class)))
+        })
+        @PostMapping("/batch")
+        public ResponseEntity<TaskBatchResult> createTasks(
+                        @Parameter(description = "Tasks to create", required = true) @RequestBody List<TaskDTO> taskDTOs) {
+                TaskBatchResult result = taskService.createBatch(taskDTOs);
+                HttpStatus status = result.getCreated() > 0 ? HttpStatus.CREATED : HttpStatus.BAD_REQUEST;
+                return new ResponseEntity<>(result, status);
+        }
+
         // Get all tasks
-        @Operation(summary = "Get all tasks", description = "Returns a list of all tasks")
+        @Operation(summary = "Get all tasks", description = "Returns the tasks one page at a time")
         @ApiResponses(value = {
-                        @ApiResponse(responseCode = "200", description = "Successfully retrieved tasks", content = @Content(mediaType = "application/json", schema = @Schema(implementation = TaskDTO.class)))
+                        @ApiResponse(responseCode = "200", description = "Successfully retrieved tasks; a CursorPage when paginated, otherwise the first page with a Link header to the next", content = @Content(mediaType = "application/json", schema = @Schema(implementation = TaskDTO.class)))
         })
         @GetMapping
-        public ResponseEntity<List<TaskDTO>> getAllTasks() {
-                List<TaskDTO> tasks = taskService.getAll();
-                return new ResponseEntity<>(tasks, HttpStatus.OK);
+        public ResponseEntity<?> getAllTasks(
+                        @Parameter(description = CURSOR_DOC) @RequestParam(required = false) String cursor,
+                        @Parameter(description = SIZE_DOC) @RequestParam(required = false) Integer size,
+                        @Parameter(description = SORT_DOC) @RequestParam(required = false) String sort,
+                        @Parameter(description = FIELDS_DOC) @RequestParam(required = false) String fields,
+                        @Parameter(description = INCLUDE_DOC) @RequestParam(required = false) String include,
+                        @Parameter(description = SHAPE_DOC) @RequestParam(required = false) String shape) {
+                TaskView view = TaskView.of(fields, include, shape);
+                return listing(view, taskService.getAll(cursor, size, sort, view), isPaged(cursor, size, sort));
         }
 
         // Get tasks by assigned user
         @Operation(summary = "Get tasks by assigned user", description = "Returns a list of tasks assigned to a specific user")
         @ApiResponses(value = {
-                        @ApiResponse(responseCode = "200", description = "Successfully retrieved tasks", content = @Content(mediaType = "application/json", schema = @Schema(implementation = TaskDTO.class))),
+                        @ApiResponse(responseCode = "200", description = "Successfully retrieved tasks; a CursorPage when paginated, otherwise the first page with a Link header to the next", content = @Content(mediaType = "application/json", schema = @Schema(implementation = TaskDTO.class))),
                         @ApiResponse(responseCode = "404", description = "User not found", content = @Content)
         })
         @GetMapping("/user/{userId}")
-        public ResponseEntity<List<TaskDTO>> getTasksByUser(
-                        @Parameter(description = "ID of the user whose tasks to retrieve", required = true) @PathVariable Long userId) {
-                List<TaskDTO> tasks = taskService.getTasksByUser(userId);
-                return new ResponseEntity<>(tasks, HttpStatus.OK);
+        public ResponseEntity<?> getTasksByUser(
+                        @Parameter(description = "ID of the user whose tasks to retrieve", required = true) @PathVariable Long userId,
+                        @Parameter(description = CURSOR_DOC) @RequestParam(required = false) String cursor,
+                        @Parameter(description = SIZE_DOC) @RequestParam(required = false) Integer size,
+                        @Parameter(description = SORT_DOC) @RequestParam(required = false) String sort,
+                        @Parameter(description = FIELDS_DOC) @RequestParam(required = false) String fields,
+                        @Parameter(description = INCLUDE_DOC) @RequestParam(required = false) String include,
+                        @Parameter(description = SHAPE_DOC) @RequestParam(required = false) String shape) {
+                TaskView view = TaskView.of(fields, include, shape);
+                return listing(view, taskService.getTasksByUser(userId, cursor, size, sort, view), isPaged(cursor, size, sort));
         }
 
         // Get tasks by project
         @Operation(summary = "Get tasks by project", description = "Returns a list of tasks for a specific project")
         @ApiResponses(value = {
-                        @ApiResponse(responseCode = "200", description = "Successfully retrieved tasks", content = @Content(mediaType = "application/json", schema = @Schema(implementation = TaskDTO.class))),
+                        @ApiResponse(responseCode = "200", description = "Successfully retrieved tasks; a CursorPage when paginated, otherwise the first page with a Link header to the next", content = @Content(mediaType = "application/json", schema = @Schema(implementation = TaskDTO.class))),
                         @ApiResponse(responseCode = "404", description = "Project not found", content = @Content)
         })
         @GetMapping("/project/{projectId}")
-        public ResponseEntity<List<TaskDTO>> getTasksByProject(
-                        @Parameter(description = "ID of the project whose tasks to retrieve", required = true) @PathVariable Long projectId) {
-                List<TaskDTO> tasks = taskService.getTasksByProject(projectId);
-                return new ResponseEntity<>(tasks, HttpStatus.OK);
+        public ResponseEntity<?> getTasksByProject(
+                        @Parameter(description = "ID of the project whose tasks to retrieve", required = true) @PathVariable Long projectId,
+                        @Parameter(description = CURSOR_DOC) @RequestParam(required = false) String cursor,
+                        @Parameter(description = SIZE_DOC) @RequestParam(required = false) Integer size,
+                        @Parameter(description = SORT_DOC) @RequestParam(required = false) String sort,
+                        @Parameter(description = FIELDS_DOC) @RequestParam(required = false) String fields,
+                        @Parameter(description = INCLUDE_DOC) @RequestParam(required = false) String include,
+                        @Parameter(description = SHAPE_DOC) @RequestParam(required = false) String shape) {
+                TaskView view = TaskView.of(fields, include, shape);
+                return listing(view, taskService.getTasksByProject(projectId, cursor, size, sort, view), isPaged(cursor, size, sort));
         }
 
         // Get tasks by status
         @Operation(summary = "Get tasks by status", description = "Returns a list of tasks with the specified status")
         @ApiResponses(value = {
-                        @ApiResponse(responseCode = "200", description = "Successfully retrieved tasks", content = @Content(mediaType = "application/json", schema = @Schema(implementation = TaskDTO.class)))
+                        @ApiResponse(responseCode = "200", description = "Successfully retrieved tasks; a CursorPage when paginated, otherwise the first page with a Link header to the next", content = @Content(mediaType = "application/json", schema = @Schema(implementation = TaskDTO.class)))
         })
         @GetMapping("/status/{status}")
-        public ResponseEntity<List<TaskDTO>> getTasksByStatus(
-                        @Parameter(description = "Status of tasks to retrieve (true for completed, false for not completed)", required = true) @PathVariable boolean status) {
-                List<TaskDTO> tasks = taskService.getTasksByStatus(status);
-                return new ResponseEntity<>(tasks, HttpStatus.OK);
+        public ResponseEntity<?> getTasksByStatus(
+                        @Parameter(description = "Status of tasks to retrieve (true for completed, false for not completed)", required = true) @PathVariable boolean status,
+                        @Parameter(description = CURSOR_DOC) @RequestParam(required = false) String cursor,
+                        @Parameter(description = SIZE_DOC) @RequestParam(required = false) Integer size,
+                        @Parameter(description = SORT_DOC) @RequestParam(required = false) String sort,
+                        @Parameter(description = FIELDS_DOC) @RequestParam(required = false) String fields,
+                        @Parameter(description = INCLUDE_DOC) @RequestParam(required = false) String include,
+                        @Parameter(description = SHAPE_DOC) @RequestParam(required = false) String shape) {
+                TaskView view = TaskView.of(fields, include, shape);
+                return listing(view, taskService.getTasksByStatus(status, cursor, size, sort, view), isPaged(cursor, size, sort));
+        }
+
+        // Search tasks by any combination of filters
+        @Operation(summary = "Search tasks", description = "Returns a page of tasks matching every filter given; filters that are left out are ignored")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Successfully retrieved tasks", content = @Content(mediaType = "application/json", schema = @Schema(implementation = CursorPage.class))),
+                        @ApiResponse(responseCode = "400", description = "Invalid filter or cursor", content = @Content)
+        })
+        @GetMapping("/search")
+        public ResponseEntity<?> searchTasks(
+                        @Parameter(description = "Only tasks in this project") @RequestParam(required = false) Long projectId,
+                        @Parameter(description = "Only tasks assigned to this user") @RequestParam(required = false) Long assignedUserId,
+                        @Parameter(description = "Only completed (true) or open (false) tasks") @RequestParam(required = false) Boolean status,
+                        @Parameter(description = "Only tasks due on or after this date") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueFrom,
+                        @Parameter(description = "Only tasks due on or before this date") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueTo,
+                        @Parameter(description = "Only tasks whose title starts with this text, ignoring case") @RequestParam(required = false) String titlePrefix,
+                        @Parameter(description = CURSOR_DOC) @RequestParam(required = false) String cursor,
+                        @Parameter(description = SIZE_DOC) @RequestParam(required = false) Integer size,
+                        @Parameter(description = SORT_DOC) @RequestParam(required = false) String sort,
+                        @Parameter(description = FIELDS_DOC) @RequestParam(required = false) String fields,
+                        @Parameter(description = INCLUDE_DOC) @RequestParam(required = false) String include,
+                        @Parameter(description = SHAPE_DOC) @RequestParam(required = false) String shape) {
+                TaskSearchCriteria criteria = new TaskSearchCriteria(projectId, assignedUserId, status, dueFrom, dueTo, titlePrefix);
+                TaskView view = TaskView.of(fields, include, shape);
+                return ResponseEntity.ok(render(view, taskService.search(criteria, cursor, size, sort, view)));
+        }
+
+        // Stream every task as newline-delimited JSON
+        @Operation(summary = "Export all tasks", description = "Streams every task as one JSON object per line, gzip-compressed when the client accepts it")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Tasks streamed", content = @Content(mediaType = "application/x-ndjson"))
+        })
+        @GetMapping(value = "/export", produces = "application/x-ndjson")
+        public ResponseEntity<StreamingResponseBody> exportTasks(
+                        @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+                boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+                StreamingResponseBody body = out -> {
+                        if (gzip) {
+                                GZIPOutputStream compressed = new GZIPOutputStream(out, 8192);
+                                taskExportService.exportNdjson(compressed);
+                                compressed.finish();
+                        } else {
+                                taskExportService.exportNdjson(out);
+                        }
+                };
+
+                ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                                .contentType(NDJSON)
+                                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+                if (gzip) {
+                        response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+                }
+                return response.body(body);
         }
 
         // Get a task by ID
@@ -101,10 +215,19 @@ public class TaskController {
                         @ApiResponse(responseCode = "404", description = "Task not found", content = @Content)
         })
         @GetMapping("/{id}")
-        public ResponseEntity<TaskDTO> getTaskById(
-                        @Parameter(description = "ID of the task to retrieve", required = true) @PathVariable Long id) {
-                Optional<TaskDTO> task = taskService.getById(id);
-                return task.map(value -> new ResponseEntity<>(value, HttpStatus.OK))
+        public ResponseEntity<?> getTaskById(
+                        @Parameter(description = "ID of the task to retrieve", required = true) @PathVariable Long id,
+                        @Parameter(description = "Comma-separated task attributes to return, e.g. id,title,status; all when omitted") @RequestParam(required = false) String fields,
+                        @Parameter(description = "Comma-separated associations to embed: project, assignee; both when fields and include are omitted") @RequestParam(required = false) String include) {
+                // A single task embeds both associations unless the caller narrows it
+                if (fields == null && include == null) {
+                        Optional<TaskDTO> task = taskService.getById(id);
+                        return task.map(value -> new ResponseEntity<>(value, HttpStatus.OK))
+                                        .orElseGet(() -> new ResponseEntity<>(HttpStatus.NOT_FOUND));
+                }
+                TaskView view = TaskView.of(fields, include);
+                return taskService.getById(id, view)
+                                .<ResponseEntity<?>>map(value -> ResponseEntity.ok(view.render(value)))
                                 .orElseGet(() -> new ResponseEntity<>(HttpStatus.NOT_FOUND));
         }
 
@@ -120,14 +243,25 @@ public class TaskController {
         public ResponseEntity<TaskDTO> updateTask(
                         @Parameter(description = "ID of the task to update", required = true) @PathVariable Long id,
                         @Parameter(description = "Updated task data", required = true) @Valid @RequestBody TaskDTO taskDTO) {
-                // Validate task update access
-                securityUtil.validateTaskUpdateAccess(id);
-
+                // Access is validated by the service against the task it loads
                 Optional<TaskDTO> updatedTask = taskService.update(id, taskDTO);
                 return updatedTask.map(value -> new ResponseEntity<>(value, HttpStatus.OK))
                                 .orElseGet(() -> new ResponseEntity<>(HttpStatus.NOT_FOUND));
         }
 
+        // Update many tasks at once
+        @Operation(summary = "Update tasks in bulk", description = "Applies the same field changes to the tasks selected by ids or by filter. Developers only change tasks assigned to them")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Tasks updated", content = @Content(mediaType = "application/json", schema = @Schema(implementation = TaskBulkUpdateResult.class))),
+                        @ApiResponse(responseCode = "400", description = "Invalid selection or changes", content = @Content),
+                        @ApiResponse(responseCode = "403", description = "Not allowed to update tasks", content = @Content)
+        })
+        @PatchMapping("/bulk")
+        public ResponseEntity<TaskBulkUpdateResult> updateTasks(
+                        @Parameter(description = "Task selection and field changes", required = true) @RequestBody TaskBulkUpdateRequest request) {
+                return ResponseEntity.ok(taskService.bulkUpdate(request));
+        }
+
         // Delete a task
         @Operation(summary = "Delete a task", description = "Deletes a task based on the provided ID")
         @ApiResponses(value = {
@@ -143,4 +277,36 @@ public class TaskController {
                 taskService.delete(id);
                 return new ResponseEntity<>(HttpStatus.NO_CONTENT);
         }
+
+        // Requests without a pagination parameter get the plain list existing clients expect
+        private static boolean isPaged(String cursor, Integer size, String sort) {
+                return cursor != null || size != null || sort != null;
+        }
+
+        // Paginated requests get the CursorPage. Others get the first page as a plain list,
+        // never the whole table, with a Link header to the next page when there is one
+        private ResponseEntity<?> listing(TaskView view, CursorPage<TaskDTO> page, boolean paged) {
+                if (paged) {
+                        return ResponseEntity.ok(render(view, page));
+                }
+                ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+                if (page.getNextCursor() != null) {
+                        String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                                        .replaceQueryParam("cursor", page.getNextCursor())
+                                        .toUriString();
+                        response.header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+                }
+                return response.body(render(view, page.getContent()));
+        }
+
+        // Writes the tasks in the requested view, side-loading their projects and users when normalized
+        private Object render(TaskView view, List<TaskDTO> tasks) {
+                Object data = view.render(tasks);
+                return view.normalized() ? new SideLoaded<>(data, taskService.sideLoad(tasks, view)) : data;
+        }
+
+        private Object render(TaskView view, CursorPage<TaskDTO> page) {
+                Object data = view.render(page);
+                return view.normalized() ? new SideLoaded<>(data, taskService.sideLoad(page.getContent(), view)) : data;
+        }
 }
@@ -128,4 +128,22 @@ public class UserController {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
     }
-}
\ No newline at end of file
+
+    // Revoke every session of a user
+    @Operation(summary = "Revoke user sessions", description = "Ends every session of a user; their tokens and refresh tokens stop working")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Sessions revoked successfully", content = @Content),
+            @ApiResponse(responseCode = "404", description = "User not found", content = @Content),
+            @ApiResponse(responseCode = "403", description = "Access denied - Only ADMIN role can revoke sessions", content = @Content)
+    })
+    @DeleteMapping("/{id}/sessions")
+    public ResponseEntity<Void> revokeSessions(
+            @Parameter(description = "ID of the user whose sessions to revoke", required = true) @PathVariable Long id) {
+        try {
+            userService.revokeSessions(id);
+            return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+        } catch (ResourceNotFoundException e) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.ndungutse.project_tracker.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated listing. Pass {@code nextCursor} back as the
+ * {@code cursor} parameter to fetch the following page.
+ */
+@Data
+public class CursorPage<T> {
+    private List<T> content;
+    private Integer size;
+    private boolean hasNext;
+    private String nextCursor;
+    // Approximate number of rows in the whole listing; only set when the client asks for it
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long estimatedTotal;
+
+    public CursorPage(List<T> content, int size, String nextCursor) {
+        this.content = content;
+        this.size = size;
+        this.hasNext = nextCursor != null;
+        this.nextCursor = nextCursor;
+    }
+}
@@ -0,0 +1,57 @@
+package com.ndungutse.project_tracker.dto;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Sparse fieldset parsed from a comma-separated {@code fields} parameter.
+ * Only the selected attributes are written, in the order the DTO declares them.
+ */
+public final class FieldSet<T> {
+    private final Map<String, Function<T, Object>> selected;
+
+    private FieldSet(Map<String, Function<T, Object>> selected) {
+        this.selected = selected;
+    }
+
+    /**
+     * Parse a fields parameter
+     *
+     * @param fields    Comma-separated attribute names, or null for every attribute
+     * @param available Every attribute the DTO exposes, in output order
+     * @return The selection, or null when no fields were requested
+     * @throws IllegalArgumentException if an unknown attribute is requested
+     */
+    public static <T> FieldSet<T> parse(String fields, Map<String, Function<T, Object>> available) {
+        if (fields == null || fields.isBlank()) {
+            return null;
+        }
+
+        List<String> requested = List.of(fields.split(",")).stream().map(String::trim).filter(f -> !f.isEmpty()).toList();
+        for (String field : requested) {
+            if (!available.containsKey(field)) {
+                throw new IllegalArgumentException("Unknown field: " + field + "; available fields are " + available.keySet());
+            }
+        }
+
+        Map<String, Function<T, Object>> selected = new LinkedHashMap<>();
+        available.forEach((name, getter) -> {
+            if (requested.contains(name)) {
+                selected.put(name, getter);
+            }
+        });
+        return new FieldSet<>(selected);
+    }
+
+    public boolean contains(String field) {
+        return selected.containsKey(field);
+    }
+
+    public Map<String, Object> apply(T value) {
+        Map<String, Object> result = new LinkedHashMap<>(selected.size() * 2);
+        selected.forEach((name, getter) -> result.put(name, getter.apply(value)));
+        return result;
+    }
+}
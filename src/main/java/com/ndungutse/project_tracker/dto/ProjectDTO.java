@@ -3,6 +3,10 @@ package com.ndungutse.project_tracker.dto;
 import com.ndungutse.project_tracker.model.Project;
 
 import java.time.LocalDate;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
 
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -10,6 +14,9 @@ import lombok.NoArgsConstructor;
 @Data
 @NoArgsConstructor
 public class ProjectDTO {
+    // Attributes a fields= parameter can select, in output order
+    public static final Map<String, Function<ProjectDTO, Object>> FIELDS = fields();
+
     private Long id;
     private String name;
     private String description;
@@ -60,6 +67,16 @@ public class ProjectDTO {
         return new ProjectDTO(project);
     }
 
+    private static Map<String, Function<ProjectDTO, Object>> fields() {
+        Map<String, Function<ProjectDTO, Object>> fields = new LinkedHashMap<>();
+        fields.put("id", ProjectDTO::getId);
+        fields.put("name", ProjectDTO::getName);
+        fields.put("description", ProjectDTO::getDescription);
+        fields.put("deadline", ProjectDTO::getDeadline);
+        fields.put("status", ProjectDTO::isStatus);
+        return Collections.unmodifiableMap(fields);
+    }
+
     // Getters and Setters are handled by @Data
 
     // Convert DTO to Entity
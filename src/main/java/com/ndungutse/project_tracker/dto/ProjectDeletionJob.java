@@ -0,0 +1,46 @@
+package com.ndungutse.project_tracker.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.Instant;
+
+/**
+ * Progress of a project deletion running in the background. Each change
+ * produces a new instance, so a job can be read from any thread.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ProjectDeletionJob(
+        String id,
+        Long projectId,
+        Status status,
+        long deletedTasks,
+        String error,
+        Instant createdAt,
+        Instant finishedAt
+) {
+    public enum Status {
+        QUEUED, RUNNING, COMPLETED, FAILED
+    }
+
+    public static ProjectDeletionJob queued(String id, Long projectId) {
+        return new ProjectDeletionJob(id, projectId, Status.QUEUED, 0, null, Instant.now(), null);
+    }
+
+    @JsonIgnore
+    public boolean isFinished() {
+        return status == Status.COMPLETED || status == Status.FAILED;
+    }
+
+    public ProjectDeletionJob running(long deletedTasks) {
+        return new ProjectDeletionJob(id, projectId, Status.RUNNING, deletedTasks, null, createdAt, null);
+    }
+
+    public ProjectDeletionJob completed(long deletedTasks) {
+        return new ProjectDeletionJob(id, projectId, Status.COMPLETED, deletedTasks, null, createdAt, Instant.now());
+    }
+
+    public ProjectDeletionJob failed(String error) {
+        return new ProjectDeletionJob(id, projectId, Status.FAILED, deletedTasks, error, createdAt, Instant.now());
+    }
+}
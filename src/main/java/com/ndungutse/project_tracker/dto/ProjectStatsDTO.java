@@ -0,0 +1,26 @@
+package com.ndungutse.project_tracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Task counters of a project, read from the maintained project_stats rows
+ * instead of counting tasks
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProjectStatsDTO {
+    private Long projectId;
+    private long totalTasks;
+    private long completedTasks;
+    private long openTasks;
+    private long overdueTasks;
+    // Completed share of all tasks, 0-100
+    private double completionPercent;
+    // Open tasks per assignee, by user ID
+    private Map<Long, Long> openTasksByAssignee;
+}
@@ -0,0 +1,46 @@
+package com.ndungutse.project_tracker.dto;
+
+import com.ndungutse.project_tracker.model.Project;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * A project together with the task counts a dashboard shows for it
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+@NoArgsConstructor
+public class ProjectSummaryDTO extends ProjectDTO {
+    // Attributes a fields= parameter can select, in output order
+    public static final Map<String, Function<ProjectSummaryDTO, Object>> SUMMARY_FIELDS = fields();
+
+    private long openTasks;
+    private long completedTasks;
+    private long overdueTasks;
+    private LocalDate earliestOpenDueDate;
+
+    public ProjectSummaryDTO(Project project, TaskRollup rollup) {
+        super(project);
+        this.openTasks = rollup.openTasks();
+        this.completedTasks = rollup.completedTasks();
+        this.overdueTasks = rollup.overdueTasks();
+        this.earliestOpenDueDate = rollup.earliestOpenDueDate();
+    }
+
+    private static Map<String, Function<ProjectSummaryDTO, Object>> fields() {
+        Map<String, Function<ProjectSummaryDTO, Object>> fields = new LinkedHashMap<>();
+        ProjectDTO.FIELDS.forEach((name, getter) -> fields.put(name, getter::apply));
+        fields.put("openTasks", ProjectSummaryDTO::getOpenTasks);
+        fields.put("completedTasks", ProjectSummaryDTO::getCompletedTasks);
+        fields.put("overdueTasks", ProjectSummaryDTO::getOverdueTasks);
+        fields.put("earliestOpenDueDate", ProjectSummaryDTO::getEarliestOpenDueDate);
+        return Collections.unmodifiableMap(fields);
+    }
+}
@@ -0,0 +1,17 @@
+package com.ndungutse.project_tracker.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.Map;
+
+/**
+ * Normalized listing: the tasks in {@code data} reference projects and users
+ * by ID only, and {@code included} carries each distinct one once.
+ */
+public record SideLoaded<T>(T data, Included included) {
+
+    // Related resources keyed by ID; a type that was not requested is left out
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record Included(Map<Long, ProjectDTO> projects, Map<Long, UserDTO> users) {
+    }
+}
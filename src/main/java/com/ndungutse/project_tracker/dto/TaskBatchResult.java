@@ -0,0 +1,32 @@
+package com.ndungutse.project_tracker.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Outcome of a batch task creation. Every submitted task has an item at the
+ * same index holding either the new task ID or the reason it was rejected.
+ */
+@Data
+public class TaskBatchResult {
+    private int created;
+    private int failed;
+    private List<Item> items;
+
+    public TaskBatchResult(List<Item> items) {
+        this.items = items;
+        this.failed = (int) items.stream().filter(item -> item.error() != null).count();
+        this.created = items.size() - failed;
+    }
+
+    public record Item(int index, Long id, String error) {
+        public static Item created(int index, Long id) {
+            return new Item(index, id, null);
+        }
+
+        public static Item failed(int index, String error) {
+            return new Item(index, null, error);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.ndungutse.project_tracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Field patch applied to many tasks at once. The tasks are chosen either by
+ * {@code ids} or by {@code filter}; only the non-null patch fields are written.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskBulkUpdateRequest {
+    private List<Long> ids;
+    private Filter filter;
+
+    // Patch
+    private Boolean status;
+    private Long assignedUserId;
+    private LocalDate dueDate;
+
+    public boolean hasChanges() {
+        return status != null || assignedUserId != null || dueDate != null;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Filter {
+        private Long projectId;
+        private Long assignedUserId;
+        private Boolean status;
+
+        public boolean isEmpty() {
+            return projectId == null && assignedUserId == null && status == null;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.ndungutse.project_tracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of a bulk task update. {@code requested} is the number of IDs sent
+ * (null when a filter was used); {@code updated} is the number of tasks that
+ * matched and that the caller was allowed to change.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskBulkUpdateResult {
+    private Integer requested;
+    private int updated;
+}
@@ -1,12 +1,21 @@
 package com.ndungutse.project_tracker.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.ndungutse.project_tracker.model.Project;
 import com.ndungutse.project_tracker.model.Task;
 import com.ndungutse.project_tracker.model.User;
+import org.hibernate.Hibernate;
 
 import java.time.LocalDate;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
 
 public class TaskDTO {
+    // Attributes a fields= parameter can select, in output order
+    public static final Map<String, Function<TaskDTO, Object>> FIELDS = fields();
+
     private Long id;
     private String title;
     private String description;
@@ -14,7 +23,10 @@ public class TaskDTO {
     private LocalDate dueDate;
     private Long projectId;
     private Long assignedUserId;
+    // Only embedded when requested; omitted from the JSON otherwise
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private ProjectDTO projectDTO;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private UserDTO assignedUserDTO;
 
     // Default constructor
@@ -55,27 +67,57 @@ public class TaskDTO {
         this.assignedUserId = assignedUserId;
     }
 
-    // Convert Entity to DTO
+    // Convert Entity to DTO, embedding whichever associations are loaded
     public static TaskDTO fromEntity(Task task) {
+        return fromEntity(task, true, true);
+    }
+
+    // Convert Entity to DTO, embedding only the requested associations
+    public static TaskDTO fromEntity(Task task, boolean includeProject, boolean includeAssignee) {
         TaskDTO dto = new TaskDTO();
         dto.setId(task.getId());
         dto.setTitle(task.getTitle());
         dto.setDescription(task.getDescription());
         dto.setStatus(task.isStatus());
         dto.setDueDate(task.getDueDate());
-        dto.setProjectDTO(ProjectDTO.fromEntity(task.getProject()));
 
-        if (task.getProject() != null) {
-            dto.setProjectId(task.getProject().getId());
+        // Reading the id of a proxy does not initialize it. Nested DTOs are only
+        // built from associations that are requested and already loaded, so
+        // mapping never triggers a query
+        Project project = task.getProject();
+        if (project != null) {
+            dto.setProjectId(project.getId());
+            if (includeProject && Hibernate.isInitialized(project)) {
+                dto.setProjectDTO(ProjectDTO.fromEntity(project));
+            }
         }
 
-        if (task.getAssignedUser() != null) {
-            dto.setAssignedUserId(task.getAssignedUser().getId());
-            dto.setAssignedUserDTO(UserDTO.fromEntity(task.getAssignedUser()));
+        User assignedUser = task.getAssignedUser();
+        if (assignedUser != null) {
+            dto.setAssignedUserId(assignedUser.getId());
+            if (includeAssignee && Hibernate.isInitialized(assignedUser)) {
+                dto.setAssignedUserDTO(UserDTO.fromEntity(assignedUser));
+            }
+        } else {
+            dto.setAssignedUserId(task.getAssignedUserId());
         }
         return dto;
     }
 
+    private static Map<String, Function<TaskDTO, Object>> fields() {
+        Map<String, Function<TaskDTO, Object>> fields = new LinkedHashMap<>();
+        fields.put("id", TaskDTO::getId);
+        fields.put("title", TaskDTO::getTitle);
+        fields.put("description", TaskDTO::getDescription);
+        fields.put("status", TaskDTO::isStatus);
+        fields.put("dueDate", TaskDTO::getDueDate);
+        fields.put("projectId", TaskDTO::getProjectId);
+        fields.put("assignedUserId", TaskDTO::getAssignedUserId);
+        fields.put("projectDTO", TaskDTO::getProjectDTO);
+        fields.put("assignedUserDTO", TaskDTO::getAssignedUserDTO);
+        return Collections.unmodifiableMap(fields);
+    }
+
     // Convert DTO to Entity
     public Task toEntity(
             Project project,
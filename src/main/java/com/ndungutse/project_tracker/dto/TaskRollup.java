@@ -0,0 +1,19 @@
+package com.ndungutse.project_tracker.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Task counts of one project, read from its counters
+ */
+public record TaskRollup(
+        Long projectId,
+        Long openTasks,
+        Long completedTasks,
+        Long overdueTasks,
+        LocalDate earliestOpenDueDate) {
+
+    // Rollup of a project without tasks, which the aggregate returns no row for
+    public static TaskRollup none(Long projectId) {
+        return new TaskRollup(projectId, 0L, 0L, 0L, null);
+    }
+}
@@ -0,0 +1,25 @@
+package com.ndungutse.project_tracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Filters for a task search. Every field is optional and the ones that are
+ * set are combined with AND.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskSearchCriteria {
+    private Long projectId;
+    private Long assignedUserId;
+    private Boolean status;
+    // Inclusive due date range
+    private LocalDate dueFrom;
+    private LocalDate dueTo;
+    // Case-insensitive title prefix
+    private String titlePrefix;
+}
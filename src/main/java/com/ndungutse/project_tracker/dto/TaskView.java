@@ -0,0 +1,104 @@
+package com.ndungutse.project_tracker.dto;
+
+import com.ndungutse.project_tracker.model.Task;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Shape of a task response: which associations are embedded ({@code include})
+ * and which attributes are written ({@code fields}). Associations that are not
+ * embedded are never loaded, so the compact default view reads tasks alone.
+ * A normalized view side-loads the included associations instead of nesting
+ * them, so each distinct project and user is loaded and written once.
+ */
+public record TaskView(boolean includeProject, boolean includeAssignee, boolean normalized, FieldSet<TaskDTO> fields) {
+    public static final String INCLUDE_PROJECT = "project";
+    public static final String INCLUDE_ASSIGNEE = "assignee";
+    public static final String SHAPE_EMBEDDED = "embedded";
+    public static final String SHAPE_NORMALIZED = "normalized";
+
+    // Listing default: every task attribute, no nested project or assignee
+    public static final TaskView COMPACT = new TaskView(false, false, false, null);
+
+    public static TaskView of(String fields, String include) {
+        return of(fields, include, null);
+    }
+
+    /**
+     * Parse the fields, include and shape parameters of a request. A normalized
+     * shape without an include side-loads both projects and assignees.
+     *
+     * @throws IllegalArgumentException if an unknown field, include or shape is requested
+     */
+    public static TaskView of(String fields, String include, String shape) {
+        boolean normalized = false;
+        if (shape != null && !shape.isBlank()) {
+            switch (shape.trim()) {
+                case SHAPE_EMBEDDED -> normalized = false;
+                case SHAPE_NORMALIZED -> normalized = true;
+                default -> throw new IllegalArgumentException("Unknown shape: " + shape.trim()
+                        + "; available shapes are " + Set.of(SHAPE_EMBEDDED, SHAPE_NORMALIZED));
+            }
+        }
+
+        FieldSet<TaskDTO> fieldSet = FieldSet.parse(fields, TaskDTO.FIELDS);
+        boolean includeProject = fieldSet != null && fieldSet.contains("projectDTO");
+        boolean includeAssignee = fieldSet != null && fieldSet.contains("assignedUserDTO");
+
+        if (include != null && !include.isBlank()) {
+            for (String name : include.split(",")) {
+                switch (name.trim()) {
+                    case INCLUDE_PROJECT -> includeProject = true;
+                    case INCLUDE_ASSIGNEE -> includeAssignee = true;
+                    case "" -> { }
+                    default -> throw new IllegalArgumentException("Unknown include: " + name.trim()
+                            + "; available includes are " + Set.of(INCLUDE_PROJECT, INCLUDE_ASSIGNEE));
+                }
+            }
+        }
+        if (normalized && !includeProject && !includeAssignee && (include == null || include.isBlank())) {
+            includeProject = true;
+            includeAssignee = true;
+        }
+        return new TaskView(includeProject, includeAssignee, normalized, fieldSet);
+    }
+
+    // Associations to join into the task query for this view; side-loaded ones are read separately
+    public String[] fetchPaths() {
+        if (normalized) {
+            return new String[0];
+        }
+        List<String> paths = new ArrayList<>(3);
+        if (includeProject) {
+            paths.add("project");
+        }
+        if (includeAssignee) {
+            paths.add("assignedUser");
+            paths.add("assignedUser.role");
+        }
+        return paths.toArray(String[]::new);
+    }
+
+    public TaskDTO toDTO(Task task) {
+        return TaskDTO.fromEntity(task, includeProject && !normalized, includeAssignee && !normalized);
+    }
+
+    // The DTOs as they should be serialized: whole, or cut down to the requested fields
+    public Object render(List<TaskDTO> tasks) {
+        return fields == null ? tasks : tasks.stream().map(fields::apply).toList();
+    }
+
+    public Object render(TaskDTO task) {
+        return fields == null ? task : fields.apply(task);
+    }
+
+    public Object render(CursorPage<TaskDTO> page) {
+        if (fields == null) {
+            return page;
+        }
+        return new CursorPage<>(page.getContent().stream().map(fields::apply).toList(), page.getSize(),
+                page.getNextCursor());
+    }
+}
@@ -11,14 +11,34 @@ import lombok.NoArgsConstructor;
 import lombok.ToString;
 
 @Entity
-@Table(name = "tasks")
+// Composite indexes for the task search and listing filters; each leads with
+// an equality column so the trailing due_date serves both ranges and ordering.
+// The partial index on open tasks and the lower(title) index are declared only
+// in the migrations, because JPA cannot express them
+@Table(name = "tasks", indexes = {
+        @Index(name = "idx_tasks_project_status_due_date", columnList = "project_id, status, due_date"),
+        @Index(name = "idx_tasks_assigned_user_status_due_date", columnList = "assigned_user_id, status, due_date"),
+        @Index(name = "idx_tasks_due_date_id", columnList = "due_date, id")
+})
+@NamedEntityGraph(
+        name = Task.WITH_PROJECT_AND_ASSIGNEE,
+        attributeNodes = {
+                @NamedAttributeNode("project"),
+                @NamedAttributeNode(value = "assignedUser", subgraph = "assignee")
+        },
+        subgraphs = @NamedSubgraph(name = "assignee", attributeNodes = @NamedAttributeNode("role")))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class Task {
+    // Everything TaskDTO reads, fetched in the same joined select as the task
+    public static final String WITH_PROJECT_AND_ASSIGNEE = "Task.withProjectAndAssignee";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.SEQUENCE)
+    // IDs are reserved 50 at a time, so a batch of inserts does not call the sequence per row
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "task_seq")
+    @SequenceGenerator(name = "task_seq", sequenceName = "task_seq", allocationSize = 50)
     private Long id;
     private String title;
     private String description;
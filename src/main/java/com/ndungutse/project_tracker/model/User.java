@@ -6,6 +6,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -18,10 +19,11 @@ import java.util.List;
 @Builder
 public class User {
     @Id
-    @GeneratedValue(strategy = GenerationType.SEQUENCE)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_seq")
+    @SequenceGenerator(name = "user_seq", sequenceName = "user_seq", allocationSize = 50)
     private Long id;
 
-    @Column(nullable = false)
+    @Column(nullable = false, unique = true)
     private String username;
 
     @Column(nullable = false)
@@ -39,6 +41,11 @@ public class User {
     @ToString.Exclude
     private Role role;
 
+    // Bumped whenever the role changes, so tokens carrying the old role get re-checked
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private long roleVersion;
+
     @OneToMany(mappedBy = "assignedUser", cascade = CascadeType.ALL)
     @ToString.Exclude
     @Builder.Default
@@ -2,9 +2,29 @@ package com.ndungutse.project_tracker.repository;
 
 import com.ndungutse.project_tracker.model.Project;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Optional;
+
 @Repository
-public interface ProjectRepository extends JpaRepository<Project, Long> {
+public interface ProjectRepository extends JpaRepository<Project, Long>, JpaSpecificationExecutor<Project> {
+    // Row count the planner keeps for the table, refreshed by ANALYZE and autovacuum;
+    // a catalog lookup instead of a scan, and -1 before the table was first analyzed
+    @Query(value = "SELECT CAST(reltuples AS BIGINT) FROM pg_class WHERE oid = CAST('projects' AS regclass)",
+            nativeQuery = true)
+    long estimateCount();
+
+    // Locks the project row until the transaction ends; FOR UPDATE also blocks inserting tasks
+    // that reference it, whose foreign key check takes a KEY SHARE lock
+    @Query(value = "SELECT id FROM projects WHERE id = :id FOR UPDATE", nativeQuery = true)
+    Optional<Long> lockById(@Param("id") Long id);
 
-}
\ No newline at end of file
+    // Removes the row without loading the project or cascading to its tasks
+    @Modifying
+    @Query("DELETE FROM Project p WHERE p.id = :id")
+    int deleteRowById(@Param("id") Long id);
+}
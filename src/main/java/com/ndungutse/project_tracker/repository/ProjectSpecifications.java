@@ -0,0 +1,42 @@
+package com.ndungutse.project_tracker.repository;
+
+import com.ndungutse.project_tracker.model.Project;
+import jakarta.persistence.criteria.Path;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Reusable filters for project queries
+ */
+public final class ProjectSpecifications {
+
+    private ProjectSpecifications() {
+    }
+
+    public static Specification<Project> any() {
+        return (root, query, cb) -> cb.conjunction();
+    }
+
+    // Seek past the given id for listings ordered by id
+    public static Specification<Project> afterId(Long id) {
+        return (root, query, cb) -> cb.greaterThan(root.get("id"), id);
+    }
+
+    // Seek past (attribute, id) among rows where the attribute is set. Written as
+    // attribute >= value AND (attribute > value OR id > lastId) so the leading
+    // condition bounds a range of the (attribute, id) index
+    public static <T extends Comparable<? super T>> Specification<Project> after(String attribute, T value, Long id) {
+        return (root, query, cb) -> {
+            Path<T> path = root.get(attribute);
+            return cb.and(
+                    cb.greaterThanOrEqualTo(path, value),
+                    cb.or(cb.greaterThan(path, value), cb.greaterThan(root.get("id"), id)));
+        };
+    }
+
+    // Rows where the attribute is not set, past the given id (or all of them when id is null)
+    public static Specification<Project> missing(String attribute, Long afterId) {
+        return (root, query, cb) -> afterId == null
+                ? cb.isNull(root.get(attribute))
+                : cb.and(cb.isNull(root.get(attribute)), cb.greaterThan(root.get("id"), afterId));
+    }
+}
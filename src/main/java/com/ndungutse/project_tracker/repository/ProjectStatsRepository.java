@@ -0,0 +1,195 @@
+package com.ndungutse.project_tracker.repository;
+
+import com.ndungutse.project_tracker.dto.TaskRollup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Per-project task counters in project_stats and project_assignee_stats.
+ * Writers add deltas instead of recounting; {@link #reconcile} recounts a
+ * chunk of projects to repair drift.
+ */
+@Repository
+public class ProjectStatsRepository {
+    private static final String UPSERT_PROJECT_DELTA = """
+            INSERT INTO project_stats (project_id, total_tasks, completed_tasks)
+            VALUES (?, ?, ?)
+            ON CONFLICT (project_id) DO UPDATE SET
+                total_tasks = project_stats.total_tasks + EXCLUDED.total_tasks,
+                completed_tasks = project_stats.completed_tasks + EXCLUDED.completed_tasks""";
+
+    private static final String UPSERT_ASSIGNEE_DELTA = """
+            INSERT INTO project_assignee_stats (project_id, user_id, open_tasks)
+            VALUES (?, ?, ?)
+            ON CONFLICT (project_id, user_id) DO UPDATE SET
+                open_tasks = project_assignee_stats.open_tasks + EXCLUDED.open_tasks""";
+
+    private static final String RECOUNT_PROJECTS = """
+            UPDATE project_stats s SET
+                total_tasks = c.total_tasks,
+                completed_tasks = c.completed_tasks
+            FROM (SELECT p.id AS project_id,
+                         COUNT(t.id) AS total_tasks,
+                         COUNT(t.id) FILTER (WHERE t.status) AS completed_tasks
+                  FROM unnest(?) AS p(id)
+                           LEFT JOIN tasks t ON t.project_id = p.id
+                  GROUP BY p.id) c
+            WHERE s.project_id = c.project_id
+              AND (s.total_tasks, s.completed_tasks) IS DISTINCT FROM (c.total_tasks, c.completed_tasks)""";
+
+    private static final String RECOUNT_ASSIGNEES = """
+            INSERT INTO project_assignee_stats (project_id, user_id, open_tasks)
+            SELECT project_id, assigned_user_id, COUNT(*)
+            FROM tasks
+            WHERE project_id = ANY(?) AND NOT status AND assigned_user_id IS NOT NULL
+            GROUP BY project_id, assigned_user_id
+            ON CONFLICT (project_id, user_id) DO UPDATE SET open_tasks = EXCLUDED.open_tasks
+            WHERE project_assignee_stats.open_tasks <> EXCLUDED.open_tasks""";
+
+    private static final String DELETE_STALE_ASSIGNEES = """
+            DELETE FROM project_assignee_stats s
+            WHERE s.project_id = ANY(?)
+              AND NOT EXISTS (SELECT 1 FROM tasks t
+                              WHERE t.project_id = s.project_id AND t.assigned_user_id = s.user_id AND NOT t.status)
+            RETURNING s.open_tasks""";
+
+    // Overdue depends on the date, so it is counted at read time rather than maintained:
+    // an index range over (project_id, status, due_date) covering only the overdue tasks
+    private static final String COUNT_OVERDUE =
+            "(SELECT COUNT(*) FROM tasks t WHERE t.project_id = p.id AND NOT t.status AND t.due_date < ?)";
+
+    // Counters of each project plus its overdue count and earliest open due date; MIN reads
+    // the first entry of the same index range
+    private static final String ROLLUPS = """
+            SELECT p.id,
+                   COALESCE(s.total_tasks, 0) - COALESCE(s.completed_tasks, 0),
+                   COALESCE(s.completed_tasks, 0),
+                   %s,
+                   (SELECT MIN(t.due_date) FROM tasks t WHERE t.project_id = p.id AND NOT t.status)
+            FROM unnest(?) AS p(id)
+                     LEFT JOIN project_stats s ON s.project_id = p.id""".formatted(COUNT_OVERDUE);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ProjectStatsRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public record Counts(long totalTasks, long completedTasks, long overdueTasks) {
+    }
+
+    public record ProjectDelta(long projectId, long totalTasks, long completedTasks) {
+    }
+
+    public record AssigneeDelta(long projectId, long userId, long openTasks) {
+    }
+
+    /**
+     * Add deltas to the counters, creating missing rows. Callers pass project
+     * deltas first and both lists in ascending key order, so concurrent
+     * writers lock rows in the same order and cannot deadlock.
+     */
+    public void applyDeltas(List<ProjectDelta> projectDeltas, List<AssigneeDelta> assigneeDeltas) {
+        if (!projectDeltas.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT_PROJECT_DELTA, projectDeltas, projectDeltas.size(), (statement, delta) -> {
+                statement.setLong(1, delta.projectId());
+                statement.setLong(2, delta.totalTasks());
+                statement.setLong(3, delta.completedTasks());
+            });
+        }
+        if (!assigneeDeltas.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT_ASSIGNEE_DELTA, assigneeDeltas, assigneeDeltas.size(), (statement, delta) -> {
+                statement.setLong(1, delta.projectId());
+                statement.setLong(2, delta.userId());
+                statement.setLong(3, delta.openTasks());
+            });
+        }
+    }
+
+    // Counters of a project by primary key, with tasks overdue as of today; empty if the project does not exist
+    public Optional<Counts> findCounts(Long projectId, LocalDate today) {
+        return jdbcTemplate.query("""
+                        SELECT COALESCE(s.total_tasks, 0), COALESCE(s.completed_tasks, 0), %s
+                        FROM projects p LEFT JOIN project_stats s ON s.project_id = p.id
+                        WHERE p.id = ?""".formatted(COUNT_OVERDUE),
+                (rs, rowNum) -> new Counts(rs.getLong(1), rs.getLong(2), rs.getLong(3)),
+                Date.valueOf(today), projectId).stream().findFirst();
+    }
+
+    // Task rollups of the given projects in one statement, one row per ID whether or not it has tasks
+    public List<TaskRollup> findRollups(Collection<Long> projectIds, LocalDate today) {
+        return jdbcTemplate.query(statement(ROLLUPS, Date.valueOf(today), projectIds.toArray(Long[]::new)),
+                (rs, rowNum) -> new TaskRollup(rs.getLong(1), rs.getLong(2), rs.getLong(3), rs.getLong(4),
+                        rs.getObject(5, LocalDate.class)));
+    }
+
+    // Open tasks of each assignee in a project, by user ID
+    public Map<Long, Long> findOpenTasksByAssignee(Long projectId) {
+        Map<Long, Long> openTasks = new LinkedHashMap<>();
+        jdbcTemplate.query(
+                "SELECT user_id, open_tasks FROM project_assignee_stats WHERE project_id = ? AND open_tasks <> 0 ORDER BY user_id",
+                rs -> {
+                    openTasks.put(rs.getLong(1), rs.getLong(2));
+                },
+                projectId);
+        return openTasks;
+    }
+
+    // Next chunk of project IDs in ascending order, for walking every project
+    public List<Long> findProjectIdsAfter(long afterId, int limit) {
+        return jdbcTemplate.queryForList("SELECT id FROM projects WHERE id > ? ORDER BY id LIMIT ?", Long.class,
+                afterId, limit);
+    }
+
+    /**
+     * Recount the counters of the given projects and overwrite those that
+     * drifted. The counter rows are locked before counting: writers that
+     * already applied a delta have committed by the time the count runs, and
+     * later writers apply their delta on top of the recount. Must run in a
+     * transaction.
+     *
+     * @return How many counter rows were wrong
+     */
+    public int reconcile(List<Long> projectIds) {
+        Long[] ids = projectIds.toArray(Long[]::new);
+
+        // Missing rows are created first so that they can be locked too
+        jdbcTemplate.update(statement("INSERT INTO project_stats (project_id) SELECT unnest(?) ON CONFLICT DO NOTHING", (Object) ids));
+        jdbcTemplate.query(
+                statement("SELECT project_id FROM project_stats WHERE project_id = ANY(?) ORDER BY project_id FOR UPDATE", (Object) ids),
+                rs -> {
+                });
+
+        int drifted = jdbcTemplate.update(statement(RECOUNT_PROJECTS, (Object) ids));
+        drifted += jdbcTemplate.update(statement(RECOUNT_ASSIGNEES, (Object) ids));
+        // Rows that fell to zero are removed; only non-zero ones had drifted
+        drifted += (int) jdbcTemplate.query(statement(DELETE_STALE_ASSIGNEES, (Object) ids), (rs, rowNum) -> rs.getLong(1))
+                .stream().filter(openTasks -> openTasks != 0).count();
+        return drifted;
+    }
+
+    // Binds ID arrays as bigint[] and everything else as is
+    private static PreparedStatementCreator statement(String sql, Object... params) {
+        return connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql);
+            for (int i = 0; i < params.length; i++) {
+                if (params[i] instanceof Long[] ids) {
+                    statement.setArray(i + 1, connection.createArrayOf("bigint", ids));
+                } else {
+                    statement.setObject(i + 1, params[i]);
+                }
+            }
+            return statement;
+        };
+    }
+}
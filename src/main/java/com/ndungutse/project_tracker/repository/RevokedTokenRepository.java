@@ -0,0 +1,22 @@
+package com.ndungutse.project_tracker.repository;
+
+import com.ndungutse.project_tracker.model.RevokedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, String> {
+
+    // Revocations recorded since the last sync that still matter
+    List<RevokedToken> findByRevokedAtAfterAndExpiresAtAfter(Instant revokedSince, Instant now);
+
+    @Modifying
+    @Query("DELETE FROM RevokedToken t WHERE t.expiresAt < :now")
+    int deleteExpired(@Param("now") Instant now);
+}
@@ -1,16 +1,54 @@
 package com.ndungutse.project_tracker.repository;
 
 import com.ndungutse.project_tracker.model.Task;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface TaskRepository extends JpaRepository<Task, Long> {
+public interface TaskRepository extends JpaRepository<Task, Long>, JpaSpecificationExecutor<Task>, TaskRepositoryCustom {
+    // Single-task reads embed the project and assignee, so they are joined up front
+    @Override
+    @EntityGraph(Task.WITH_PROJECT_AND_ASSIGNEE)
+    Optional<Task> findById(Long id);
+
+    // Listings default to the compact view, which reads tasks alone; views that
+    // embed associations join them through TaskService with the paths they need
     List<Task> findByAssignedUserId(Long userId);
 
     List<Task> findByProjectId(Long projectId);
 
-    List<Task> findByStatus(boolean status);
-}
\ No newline at end of file
+    // Rows fetched per round trip when streaming; PostgreSQL only honours it inside a transaction
+    int STREAM_FETCH_SIZE = 1000;
+
+    // Every task in id order, read through a server-side cursor instead of being
+    // loaded at once; the stream must be consumed and closed inside a transaction
+    @EntityGraph(Task.WITH_PROJECT_AND_ASSIGNEE)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT t FROM Task t ORDER BY t.id")
+    Stream<Task> streamAll();
+
+    // Validates both references of a task in one round trip
+    @Query("SELECT CASE WHEN COUNT(p) > 0 THEN true ELSE false END FROM Project p "
+            + "WHERE p.id = :projectId AND EXISTS (SELECT u.id FROM User u WHERE u.id = :userId)")
+    boolean existsProjectAndUser(@Param("projectId") Long projectId, @Param("userId") Long userId);
+
+    // Every task of a project in one statement, without loading them
+    @Modifying
+    @Query("DELETE FROM Task t WHERE t.project.id = :projectId")
+    int deleteAllByProjectId(@Param("projectId") Long projectId);
+}
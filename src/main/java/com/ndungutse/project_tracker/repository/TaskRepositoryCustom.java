@@ -0,0 +1,29 @@
+package com.ndungutse.project_tracker.repository;
+
+import com.ndungutse.project_tracker.dto.TaskBulkUpdateRequest;
+
+import java.util.List;
+
+public interface TaskRepositoryCustom {
+    /**
+     * Apply a field patch to every matching task in a single statement
+     *
+     * @param request            The tasks to change and the fields to write
+     * @param restrictToAssignee When not null, only tasks assigned to this user are changed
+     * @return The updated tasks with their state before and after, in ascending ID order
+     */
+    List<UpdatedTask> bulkUpdate(TaskBulkUpdateRequest request, Long restrictToAssignee);
+
+    /**
+     * Delete up to a limit of a project's tasks in a single statement,
+     * bypassing the Project.tasks cascade, which loads every task
+     *
+     * @param projectId The project whose tasks are deleted
+     * @param limit     The most tasks to delete
+     * @return The state of each deleted task, for the project counters
+     */
+    List<TaskState> deleteChunkByProjectId(Long projectId, int limit);
+
+    record UpdatedTask(Long id, TaskState before, TaskState after) {
+    }
+}
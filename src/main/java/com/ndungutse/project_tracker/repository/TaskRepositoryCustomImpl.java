@@ -0,0 +1,104 @@
+package com.ndungutse.project_tracker.repository;
+
+import com.ndungutse.project_tracker.dto.TaskBulkUpdateRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+class TaskRepositoryCustomImpl implements TaskRepositoryCustom {
+    private final JdbcTemplate jdbcTemplate;
+
+    TaskRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public List<UpdatedTask> bulkUpdate(TaskBulkUpdateRequest request, Long restrictToAssignee) {
+        List<String> assignments = new ArrayList<>();
+        List<Object> assignmentParams = new ArrayList<>();
+        if (request.getStatus() != null) {
+            assignments.add("status = ?");
+            assignmentParams.add(request.getStatus());
+        }
+        if (request.getAssignedUserId() != null) {
+            assignments.add("assigned_user_id = ?");
+            assignmentParams.add(request.getAssignedUserId());
+        }
+        if (request.getDueDate() != null) {
+            assignments.add("due_date = ?");
+            assignmentParams.add(Date.valueOf(request.getDueDate()));
+        }
+
+        List<String> conditions = new ArrayList<>();
+        List<Object> params = new ArrayList<>();
+        if (request.getIds() != null) {
+            conditions.add("id = ANY(?)");
+            params.add(request.getIds().toArray(Long[]::new));
+        }
+        TaskBulkUpdateRequest.Filter filter = request.getFilter();
+        if (filter != null) {
+            if (filter.getProjectId() != null) {
+                conditions.add("project_id = ?");
+                params.add(filter.getProjectId());
+            }
+            if (filter.getAssignedUserId() != null) {
+                conditions.add("assigned_user_id = ?");
+                params.add(filter.getAssignedUserId());
+            }
+            if (filter.getStatus() != null) {
+                conditions.add("status = ?");
+                params.add(filter.getStatus());
+            }
+        }
+        if (restrictToAssignee != null) {
+            conditions.add("assigned_user_id = ?");
+            params.add(restrictToAssignee);
+        }
+
+        // Rows are locked in ID order, so concurrent bulk updates over
+        // overlapping sets wait on each other instead of deadlocking
+        // The target rows still hold the values from before the update
+        String sql = "WITH target AS (SELECT id, assigned_user_id, status FROM tasks WHERE "
+                + String.join(" AND ", conditions) + " ORDER BY id FOR UPDATE)"
+                + " UPDATE tasks t SET " + String.join(", ", assignments)
+                + " FROM target WHERE t.id = target.id"
+                + " RETURNING t.id, t.project_id, target.assigned_user_id, target.status,"
+                + " t.assigned_user_id, t.status";
+        // The target select comes first in the statement, then the SET clause
+        params.addAll(assignmentParams);
+
+        List<UpdatedTask> updated = jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql);
+            for (int i = 0; i < params.size(); i++) {
+                Object param = params.get(i);
+                if (param instanceof Long[] ids) {
+                    statement.setArray(i + 1, connection.createArrayOf("bigint", ids));
+                } else {
+                    statement.setObject(i + 1, param);
+                }
+            }
+            return statement;
+        }, (rs, rowNum) -> {
+            Long projectId = rs.getObject(2, Long.class);
+            return new UpdatedTask(
+                    rs.getLong(1),
+                    new TaskState(projectId, rs.getObject(3, Long.class), rs.getBoolean(4)),
+                    new TaskState(projectId, rs.getObject(5, Long.class), rs.getBoolean(6)));
+        });
+        return updated.stream().sorted(Comparator.comparing(UpdatedTask::id)).toList();
+    }
+
+    // Native because JPQL has neither LIMIT nor RETURNING
+    @Override
+    public List<TaskState> deleteChunkByProjectId(Long projectId, int limit) {
+        return jdbcTemplate.query(
+                "DELETE FROM tasks WHERE id IN (SELECT id FROM tasks WHERE project_id = ? LIMIT ?)"
+                        + " RETURNING project_id, assigned_user_id, status",
+                (rs, rowNum) -> new TaskState(rs.getObject(1, Long.class), rs.getObject(2, Long.class), rs.getBoolean(3)),
+                projectId, limit);
+    }
+}
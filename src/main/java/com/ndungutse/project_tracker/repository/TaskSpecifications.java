@@ -0,0 +1,100 @@
+package com.ndungutse.project_tracker.repository;
+
+import com.ndungutse.project_tracker.dto.TaskSearchCriteria;
+import com.ndungutse.project_tracker.model.Task;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+
+/**
+ * Reusable filters for task queries
+ */
+public final class TaskSpecifications {
+
+    private TaskSpecifications() {
+    }
+
+    public static Specification<Task> any() {
+        return (root, query, cb) -> cb.conjunction();
+    }
+
+    public static Specification<Task> hasId(Long id) {
+        return (root, query, cb) -> cb.equal(root.get("id"), id);
+    }
+
+    public static Specification<Task> hasStatus(boolean status) {
+        return (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+
+    public static Specification<Task> assignedTo(Long userId) {
+        return (root, query, cb) -> cb.equal(root.get("assignedUserId"), userId);
+    }
+
+    public static Specification<Task> inProject(Long projectId) {
+        return (root, query, cb) -> cb.equal(root.get("project").get("id"), projectId);
+    }
+
+    public static Specification<Task> dueOnOrAfter(LocalDate date) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("dueDate"), date);
+    }
+
+    public static Specification<Task> dueOnOrBefore(LocalDate date) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("dueDate"), date);
+    }
+
+    // Matches lower(title) against a prefix, so an index on lower(title) can serve it
+    public static Specification<Task> titleStartsWith(String prefix) {
+        String pattern = prefix.toLowerCase()
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_") + "%";
+        return (root, query, cb) -> cb.like(cb.lower(root.get("title")), pattern, '\\');
+    }
+
+    // All filters set on the criteria, combined into one where clause
+    public static Specification<Task> matching(TaskSearchCriteria criteria) {
+        Specification<Task> spec = any();
+        if (criteria.getProjectId() != null) {
+            spec = spec.and(inProject(criteria.getProjectId()));
+        }
+        if (criteria.getAssignedUserId() != null) {
+            spec = spec.and(assignedTo(criteria.getAssignedUserId()));
+        }
+        if (criteria.getStatus() != null) {
+            spec = spec.and(hasStatus(criteria.getStatus()));
+        }
+        if (criteria.getDueFrom() != null) {
+            spec = spec.and(dueOnOrAfter(criteria.getDueFrom()));
+        }
+        if (criteria.getDueTo() != null) {
+            spec = spec.and(dueOnOrBefore(criteria.getDueTo()));
+        }
+        if (criteria.getTitlePrefix() != null && !criteria.getTitlePrefix().isBlank()) {
+            spec = spec.and(titleStartsWith(criteria.getTitlePrefix()));
+        }
+        return spec;
+    }
+
+    // Seek past (id) for listings ordered by id
+    public static Specification<Task> afterId(Long id) {
+        return (root, query, cb) -> cb.greaterThan(root.get("id"), id);
+    }
+
+    // Seek past (due_date, id) for listings ordered by due date. The leading
+    // due_date >= bound keeps the seek on one range of the (due_date, id) index;
+    // tasks without a due date sort last and are read by hasNoDueDate instead
+    public static Specification<Task> afterDueDate(LocalDate dueDate, Long id) {
+        return (root, query, cb) -> {
+            if (dueDate == null) {
+                return cb.and(cb.isNull(root.get("dueDate")), cb.greaterThan(root.get("id"), id));
+            }
+            return cb.and(
+                    cb.greaterThanOrEqualTo(root.get("dueDate"), dueDate),
+                    cb.or(cb.greaterThan(root.get("dueDate"), dueDate), cb.greaterThan(root.get("id"), id)));
+        };
+    }
+
+    public static Specification<Task> hasNoDueDate() {
+        return (root, query, cb) -> cb.isNull(root.get("dueDate"));
+    }
+}
@@ -0,0 +1,17 @@
+package com.ndungutse.project_tracker.repository;
+
+import com.ndungutse.project_tracker.model.Task;
+
+/**
+ * The attributes of a task that project counters depend on. The due date is
+ * not one of them: whether a task is overdue changes with the date, not with
+ * a write, so overdue counts are taken at read time.
+ */
+public record TaskState(Long projectId, Long assignedUserId, boolean completed) {
+
+    public static TaskState of(Task task) {
+        Long projectId = task.getProject() != null ? task.getProject().getId() : null;
+        Long assignedUserId = task.getAssignedUser() != null ? task.getAssignedUser().getId() : task.getAssignedUserId();
+        return new TaskState(projectId, assignedUserId, task.isStatus());
+    }
+}
@@ -1,10 +1,17 @@
 package com.ndungutse.project_tracker.repository;
 
 import com.ndungutse.project_tracker.model.User;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
@@ -12,4 +19,26 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
     boolean existsByUsername(String username);
     boolean existsByEmail(String email);
+
+    @EntityGraph(attributePaths = "role")
+    List<User> findByIdIn(Collection<Long> ids);
+
+    // Which of the given IDs exist, in one query
+    @Query("SELECT u.id FROM User u WHERE u.id IN :ids")
+    Set<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    // Holders of a role, read through idx_users_role_id
+    @Query("SELECT u.id FROM User u WHERE u.role.id = :roleId")
+    List<Long> findIdsByRoleId(@Param("roleId") Long roleId);
+
+    // Moves every holder of a role to a new role version, so tokens carrying the old one are stale
+    @Modifying
+    @Query("UPDATE User u SET u.roleVersion = u.roleVersion + 1 WHERE u.role.id = :roleId")
+    int incrementRoleVersionByRoleId(@Param("roleId") Long roleId);
+
+    // Only replaces the hash if nobody changed the password in the meantime
+    @Modifying
+    @Query("UPDATE User u SET u.password = :newPassword WHERE u.id = :id AND u.password = :oldPassword")
+    int updatePasswordIfUnchanged(@Param("id") Long id, @Param("oldPassword") String oldPassword,
+            @Param("newPassword") String newPassword);
 }
\ No newline at end of file
@@ -0,0 +1,83 @@
+package com.ndungutse.project_tracker.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * BCrypt encoder with a fixed target cost that reports any hash stored at a
+ * different cost (higher or lower) as needing an upgrade, so stored hashes
+ * converge on the target as users log in.
+ */
+public class AdaptiveBCryptPasswordEncoder extends BCryptPasswordEncoder {
+    private static final Logger logger = LoggerFactory.getLogger(AdaptiveBCryptPasswordEncoder.class);
+
+    public static final int MIN_COST = 4;
+    public static final int MAX_COST = 31;
+
+    private static final Pattern BCRYPT_PATTERN = Pattern.compile("\\A\\$2[aby]?\\$(\\d\\d)\\$[./0-9A-Za-z]{53}");
+
+    private final int cost;
+
+    public AdaptiveBCryptPasswordEncoder(int cost) {
+        super(cost);
+        this.cost = cost;
+    }
+
+    public int getCost() {
+        return cost;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null || encodedPassword.isEmpty()) {
+            return false;
+        }
+        Matcher matcher = BCRYPT_PATTERN.matcher(encodedPassword);
+        if (!matcher.matches()) {
+            return false;
+        }
+        return Integer.parseInt(matcher.group(1)) != cost;
+    }
+
+    /**
+     * Pick the highest cost whose hash time stays within the target latency on
+     * this machine. Each cost step doubles the work, so the cost is raised one
+     * step at a time while the next step still fits.
+     *
+     * @param targetMs The hash time to aim for in milliseconds
+     * @param minCost  The lowest cost to accept regardless of hardware
+     * @param maxCost  The highest cost to consider
+     * @return The calibrated cost
+     */
+    public static int calibrate(long targetMs, int minCost, int maxCost) {
+        int lower = Math.max(MIN_COST, minCost);
+        int upper = Math.min(MAX_COST, Math.max(lower, maxCost));
+
+        // Warm up so class loading and JIT do not inflate the first measurement
+        measureMillis(MIN_COST);
+
+        int calibrated = lower;
+        long elapsed = measureMillis(calibrated);
+        while (calibrated < upper && elapsed * 2 <= targetMs) {
+            calibrated++;
+            elapsed = measureMillis(calibrated);
+        }
+        if (elapsed > targetMs && calibrated > lower) {
+            calibrated--;
+        }
+
+        logger.info("Calibrated BCrypt cost {} for a {} ms target", calibrated, targetMs);
+        return calibrated;
+    }
+
+    private static long measureMillis(int cost) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(cost);
+        long start = System.nanoTime();
+        encoder.encode("calibration-password");
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+}
@@ -2,11 +2,9 @@ package com.ndungutse.project_tracker.security;
 
 import com.ndungutse.project_tracker.model.User;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import java.util.Collection;
-import java.util.Collections;
 
 public class CustomUserDetails implements UserDetails {
     private final User user;
@@ -17,9 +15,8 @@ public class CustomUserDetails implements UserDetails {
 
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        // Create authority from role
-        return Collections.singletonList(
-                new SimpleGrantedAuthority("ROLE_" + user.getRole().getRoleName()));
+        // Shared per role, so no list is allocated per call
+        return RoleAuthorities.forRole(user.getRole().getRoleName());
     }
 
     @Override
@@ -66,4 +63,9 @@ public class CustomUserDetails implements UserDetails {
     public String getRoleName() {
         return user.getRole().getRoleName();
     }
+
+    // Get role version
+    public long getRoleVersion() {
+        return user.getRoleVersion();
+    }
 }
\ No newline at end of file
@@ -1,23 +1,60 @@
 package com.ndungutse.project_tracker.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import com.ndungutse.project_tracker.model.User;
 import com.ndungutse.project_tracker.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Optional;
 
 @Service
 public class CustomUserDetailsService implements UserDetailsService {
 
     private final UserRepository userRepository;
 
-    public CustomUserDetailsService(UserRepository userRepository) {
+    // Username and email both map to the same entry, so either login form is a hit
+    private final Cache<String, CustomUserDetails> userCache;
+    private final Counter invalidations;
+
+    public CustomUserDetailsService(
+            UserRepository userRepository,
+            MeterRegistry meterRegistry,
+            @Value("${spring.app.userDetailsCacheSize:10000}") long cacheSize,
+            @Value("${spring.app.userDetailsCacheTtlMs:300000}") long cacheTtlMs) {
         this.userRepository = userRepository;
+        this.userCache = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(Duration.ofMillis(cacheTtlMs))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, userCache, "userDetails");
+        this.invalidations = Counter.builder("cache.invalidations")
+                .tag("cache", "userDetails")
+                .description("Entries removed because the user or their role changed")
+                .register(meterRegistry);
     }
 
     @Override
     public UserDetails loadUserByUsername(String usernameOrEmail) throws UsernameNotFoundException {
+        CustomUserDetails cached = userCache.getIfPresent(usernameOrEmail);
+        if (cached != null) {
+            return cached;
+        }
+
         // First try to find user by username
         User user = userRepository.findByUsername(usernameOrEmail)
                 .orElse(null);
@@ -29,6 +66,64 @@ public class CustomUserDetailsService implements UserDetailsService {
                             "User not found with username or email: " + usernameOrEmail));
         }
 
-        return new CustomUserDetails(user);
+        CustomUserDetails userDetails = new CustomUserDetails(user);
+        userCache.put(user.getUsername(), userDetails);
+        userCache.put(user.getEmail(), userDetails);
+        return userDetails;
+    }
+
+    /**
+     * Load the current state of a user by ID, used when a token's claims are
+     * known to be stale
+     *
+     * @param userId The ID of the user
+     * @return The user details, or empty if the user no longer exists
+     */
+    public Optional<CustomUserDetails> loadUserById(Long userId) {
+        return userRepository.findById(userId).map(CustomUserDetails::new);
+    }
+
+    /**
+     * Remove a user from the cache by any of their usernames or emails.
+     * Runs immediately and again after the surrounding transaction commits,
+     * so a concurrent request cannot re-cache the pre-commit state.
+     *
+     * @param keys Usernames and/or emails of the user, old and new
+     */
+    public void evict(String... keys) {
+        Runnable eviction = () -> Arrays.stream(keys)
+                .filter(Objects::nonNull)
+                .forEach(userCache::invalidate);
+        runNowAndAfterCommit(eviction);
+        invalidations.increment();
+    }
+
+    /**
+     * Remove every cached user, used when a role changes
+     */
+    public void evictAll() {
+        runNowAndAfterCommit(userCache::invalidateAll);
+        invalidations.increment();
+    }
+
+    /**
+     * Hit, miss and eviction counters of the user cache
+     *
+     * @return A snapshot of the cache statistics
+     */
+    public CacheStats getCacheStats() {
+        return userCache.stats();
+    }
+
+    private void runNowAndAfterCommit(Runnable action) {
+        action.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,265 @@
+package com.ndungutse.project_tracker.security;
+
+import com.ndungutse.project_tracker.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Token-bucket login limiter held in process. Buckets are spread over a fixed
+ * number of lock stripes so unrelated principals never contend, and each
+ * stripe is an access-ordered map capped at its share of the entry limit, so
+ * the least recently used buckets are evicted first. Only idle buckets, full
+ * and not locked out, are evicted: dropping any other would hand its principal
+ * a fresh bucket, so spraying new usernames or addresses could reset a
+ * victim's lockout. A stripe full of live buckets therefore grows past its
+ * share until they refill or their lockout ends. A rejection is a hash lookup
+ * and some arithmetic under one stripe lock.
+ *
+ * Consecutive failures for a principal beyond a threshold lock it out for an
+ * exponentially growing period; a successful login clears the lockout.
+ */
+@Component
+@ConditionalOnProperty(name = "spring.app.loginRateLimiter", havingValue = "memory", matchIfMissing = true)
+public class InMemoryLoginRateLimiter implements LoginRateLimiter {
+    private static final String PRINCIPAL_PREFIX = "user:";
+    private static final String CLIENT_PREFIX = "ip:";
+
+    private final Limit principalLimit;
+    private final Limit clientLimit;
+    private final int lockoutThreshold;
+    private final long lockoutBaseNanos;
+    private final long lockoutMaxNanos;
+    private final LongSupplier nanoClock;
+
+    private final Stripe[] stripes;
+    private final int stripeMask;
+
+    private final Counter principalRejections;
+    private final Counter clientRejections;
+    private final Counter lockoutRejections;
+
+    @Autowired
+    public InMemoryLoginRateLimiter(
+            MeterRegistry meterRegistry,
+            @Value("${spring.app.loginRateLimitUserCapacity:10}") int userCapacity,
+            @Value("${spring.app.loginRateLimitUserPerMinute:10}") int userPerMinute,
+            @Value("${spring.app.loginRateLimitIpCapacity:100}") int ipCapacity,
+            @Value("${spring.app.loginRateLimitIpPerMinute:100}") int ipPerMinute,
+            @Value("${spring.app.loginLockoutThreshold:5}") int lockoutThreshold,
+            @Value("${spring.app.loginLockoutBaseMs:1000}") long lockoutBaseMs,
+            @Value("${spring.app.loginLockoutMaxMs:900000}") long lockoutMaxMs,
+            @Value("${spring.app.loginRateLimitMaxEntries:100000}") int maxEntries,
+            @Value("${spring.app.loginRateLimitStripes:64}") int stripeCount) {
+        this(meterRegistry, new Limit(userCapacity, userPerMinute), new Limit(ipCapacity, ipPerMinute),
+                lockoutThreshold, lockoutBaseMs, lockoutMaxMs, maxEntries, stripeCount, System::nanoTime);
+    }
+
+    InMemoryLoginRateLimiter(MeterRegistry meterRegistry, Limit principalLimit, Limit clientLimit,
+            int lockoutThreshold, long lockoutBaseMs, long lockoutMaxMs, int maxEntries, int stripeCount,
+            LongSupplier nanoClock) {
+        this.principalLimit = principalLimit;
+        this.clientLimit = clientLimit;
+        this.lockoutThreshold = lockoutThreshold;
+        this.lockoutBaseNanos = TimeUnit.MILLISECONDS.toNanos(lockoutBaseMs);
+        this.lockoutMaxNanos = TimeUnit.MILLISECONDS.toNanos(lockoutMaxMs);
+        this.nanoClock = nanoClock;
+
+        // Round up to a power of two so the stripe is picked with a mask
+        int count = Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1;
+        int perStripe = Math.max(1, maxEntries / count);
+        this.stripes = new Stripe[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new Stripe(perStripe);
+        }
+        this.stripeMask = count - 1;
+
+        this.principalRejections = rejectionCounter(meterRegistry, "principal");
+        this.clientRejections = rejectionCounter(meterRegistry, "client");
+        this.lockoutRejections = rejectionCounter(meterRegistry, "lockout");
+    }
+
+    private static Counter rejectionCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("login.rate.limited")
+                .tag("reason", reason)
+                .description("Login attempts rejected before authentication")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void acquire(String principal, String clientIp) {
+        long now = nanoClock.getAsLong();
+
+        // The client bucket is checked first since one address trying many accounts is the common attack
+        if (clientIp != null) {
+            long waitNanos = tryConsume(CLIENT_PREFIX + clientIp, clientLimit, now, false);
+            if (waitNanos > 0) {
+                clientRejections.increment();
+                throw rejection(waitNanos);
+            }
+        }
+
+        long waitNanos = tryConsume(PRINCIPAL_PREFIX + normalize(principal), principalLimit, now, true);
+        if (waitNanos > 0) {
+            throw rejection(waitNanos);
+        }
+    }
+
+    @Override
+    public void recordFailure(String principal, String clientIp) {
+        long now = nanoClock.getAsLong();
+        String key = PRINCIPAL_PREFIX + normalize(principal);
+        Stripe stripe = stripeFor(key);
+        stripe.lock.lock();
+        try {
+            Bucket bucket = stripe.bucket(key, principalLimit, now);
+            bucket.failures++;
+            if (bucket.failures >= lockoutThreshold) {
+                // Doubles with every failure past the threshold, capped at the maximum
+                int doublings = Math.min(bucket.failures - lockoutThreshold, 30);
+                long lockout = Math.min(lockoutMaxNanos, lockoutBaseNanos << doublings);
+                bucket.lockedUntil = now + lockout;
+            }
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    @Override
+    public void recordSuccess(String principal, String clientIp) {
+        String key = PRINCIPAL_PREFIX + normalize(principal);
+        Stripe stripe = stripeFor(key);
+        stripe.lock.lock();
+        try {
+            Bucket bucket = stripe.buckets.get(key);
+            if (bucket != null) {
+                bucket.failures = 0;
+                bucket.lockedUntil = 0;
+            }
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    // Returns 0 if a token was taken, otherwise how long until the next one
+    private long tryConsume(String key, Limit limit, long now, boolean checkLockout) {
+        Stripe stripe = stripeFor(key);
+        stripe.lock.lock();
+        try {
+            Bucket bucket = stripe.bucket(key, limit, now);
+
+            if (checkLockout && bucket.lockedUntil - now > 0) {
+                lockoutRejections.increment();
+                return bucket.lockedUntil - now;
+            }
+
+            bucket.refill(now);
+            if (bucket.tokens >= 1) {
+                bucket.tokens -= 1;
+                return 0;
+            }
+            if (checkLockout) {
+                principalRejections.increment();
+            }
+            return (long) Math.ceil((1 - bucket.tokens) * limit.nanosPerToken);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    private Stripe stripeFor(String key) {
+        int hash = key.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & stripeMask];
+    }
+
+    private static String normalize(String principal) {
+        return principal == null ? "" : principal.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static TooManyRequestsException rejection(long waitNanos) {
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+        return new TooManyRequestsException("Too many login attempts, please retry later", retryAfterSeconds);
+    }
+
+    /**
+     * Bucket size and refill rate
+     *
+     * @param capacity      The attempts allowed in a burst
+     * @param nanosPerToken The time it takes to earn back one attempt
+     */
+    record Limit(int capacity, double nanosPerToken) {
+        Limit(int capacity, int perMinute) {
+            this(Math.max(1, capacity), (double) TimeUnit.MINUTES.toNanos(1) / Math.max(1, perMinute));
+        }
+    }
+
+    private static final class Bucket {
+        private final Limit limit;
+        private double tokens;
+        private long lastRefill;
+        private int failures;
+        private long lockedUntil;
+
+        private Bucket(Limit limit, long now) {
+            this.limit = limit;
+            this.tokens = limit.capacity;
+            this.lastRefill = now;
+        }
+
+        private void refill(long now) {
+            long elapsed = now - lastRefill;
+            if (elapsed > 0) {
+                tokens = Math.min(limit.capacity, tokens + elapsed / limit.nanosPerToken);
+                lastRefill = now;
+            }
+        }
+
+        // Dropping an idle bucket is indistinguishable from keeping it
+        private boolean isIdle(long now) {
+            refill(now);
+            return lockedUntil - now <= 0 && tokens >= limit.capacity;
+        }
+    }
+
+    private static final class Stripe {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final int maxEntries;
+        // Access order, so iteration starts at the least recently used bucket
+        private final LinkedHashMap<String, Bucket> buckets = new LinkedHashMap<>(16, 0.75f, true);
+
+        private Stripe(int maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+
+        // Caller holds the lock
+        private Bucket bucket(String key, Limit limit, long now) {
+            Bucket bucket = buckets.get(key);
+            if (bucket == null) {
+                // Make room first, so the new bucket can never be the one evicted
+                evictIdle(now);
+                bucket = new Bucket(limit, now);
+                buckets.put(key, bucket);
+            }
+            return bucket;
+        }
+
+        private void evictIdle(long now) {
+            Iterator<Bucket> eldest = buckets.values().iterator();
+            while (buckets.size() >= maxEntries && eldest.hasNext()) {
+                if (eldest.next().isIdle(now)) {
+                    eldest.remove();
+                }
+            }
+        }
+    }
+}
@@ -1,27 +1,41 @@
 package com.ndungutse.project_tracker.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Optional;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtUtils jwtUtils;
     private final CustomUserDetailsService userDetailsService;
+    private final RoleVersionRegistry roleVersionRegistry;
+    private final TokenRevocationService tokenRevocationService;
 
-    public JwtAuthenticationFilter(JwtUtils jwtUtils, CustomUserDetailsService userDetailsService) {
+    // When false, every request loads the user (through the cached user details service)
+    private final boolean statelessPrincipal;
+
+    public JwtAuthenticationFilter(JwtUtils jwtUtils, CustomUserDetailsService userDetailsService,
+            RoleVersionRegistry roleVersionRegistry, TokenRevocationService tokenRevocationService,
+            @Value("${spring.app.jwtStatelessPrincipal:true}") boolean statelessPrincipal) {
         this.jwtUtils = jwtUtils;
         this.userDetailsService = userDetailsService;
+        this.roleVersionRegistry = roleVersionRegistry;
+        this.tokenRevocationService = tokenRevocationService;
+        this.statelessPrincipal = statelessPrincipal;
     }
 
     @Override
@@ -32,7 +46,6 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         final String authHeader = request.getHeader("Authorization");
         final String jwt;
-        final String username;
 
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
             filterChain.doFilter(request, response);
@@ -40,17 +53,17 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         jwt = authHeader.substring(7);
-        username = jwtUtils.getUserNameFromJwtToken(jwt);
 
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
+        // Verify the token once; an invalid token simply leaves the request unauthenticated
+        // A revoked token or session is treated like an invalid one
+        Optional<Claims> claims = jwtUtils.verifyJwtToken(jwt).filter(c -> !isRevoked(c));
 
-            if (jwtUtils.validateJwtToken(jwt)) {
-                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                        userDetails,
-                        null,
-                        userDetails.getAuthorities());
+        if (claims.isPresent() && SecurityContextHolder.getContext().getAuthentication() == null) {
+            UsernamePasswordAuthenticationToken authToken = statelessPrincipal
+                    ? fromClaims(claims.get())
+                    : fromLookup(claims.get());
 
+            if (authToken != null) {
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authToken);
             }
@@ -58,4 +71,40 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
-}
\ No newline at end of file
+
+    // Almost always answered by the in-memory Bloom filter without any I/O
+    private boolean isRevoked(Claims claims) {
+        return tokenRevocationService.isRevoked(claims.getId())
+                || tokenRevocationService.isRevoked(claims.get(JwtUtils.CLAIM_SESSION_ID, String.class));
+    }
+
+    // Trust the claims unless the user's role changed since the token was issued
+    private UsernamePasswordAuthenticationToken fromClaims(Claims claims) {
+        UserPrincipal principal = UserPrincipal.fromClaims(claims);
+
+        // Tokens issued before identity claims were added still need a lookup
+        if (principal == null) {
+            return fromLookup(claims);
+        }
+
+        if (roleVersionRegistry.isStale(principal.getUserId(), principal.getRoleVersion())) {
+            principal = userDetailsService.loadUserById(principal.getUserId())
+                    .map(userDetails -> UserPrincipal.fromUser(userDetails.getUser()))
+                    .orElse(null);
+        }
+
+        return principal == null
+                ? null
+                : new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+    }
+
+    // Load the user behind the token subject
+    private UsernamePasswordAuthenticationToken fromLookup(Claims claims) {
+        try {
+            UserDetails userDetails = userDetailsService.loadUserByUsername(claims.getSubject());
+            return new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+        } catch (UsernameNotFoundException e) {
+            return null;
+        }
+    }
+}
@@ -1,11 +1,17 @@
 package com.ndungutse.project_tracker.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.MalformedJwtException;
-import io.jsonwebtoken.UnsupportedJwtException;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -14,20 +20,55 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
-import java.security.Key;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
 import java.util.Date;
+import java.util.Optional;
+import java.util.UUID;
 
 
 @Component
 public class JwtUtils {
     private static final Logger logger = LoggerFactory.getLogger(JwtUtils.class);
 
+    // Claims that let a request be authenticated without a user lookup
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_ROLE = "role";
+    public static final String CLAIM_ROLE_VERSION = "rv";
+    // Shared by every access token issued for one login, so a whole session can be revoked
+    public static final String CLAIM_SESSION_ID = "sid";
+
     @Value("${spring.app.jwtSecret}")
     private String jwtSecret;
 
     @Value("${spring.app.jwtExpirationMs}")
     private String jwtExpirationMS;
 
+    // Maximum number of verified tokens remembered between requests
+    @Value("${spring.app.jwtVerifiedCacheSize:10000}")
+    private long jwtVerifiedCacheSize;
+
+    // Decoded once at startup; both the key and the parser are immutable and thread-safe
+    private SecretKey signingKey;
+    private JwtParser jwtParser;
+
+    // SHA-256 digest of a verified token -> its claims, evicted when the token expires
+    private Cache<String, Claims> verifiedTokens;
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+        jwtParser = Jwts.parser().verifyWith(signingKey).build();
+        verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(jwtVerifiedCacheSize)
+                .expireAfter(Expiry.creating((String digest, Claims claims) ->
+                        Duration.ofMillis(Math.max(0, claims.getExpiration().getTime() - System.currentTimeMillis()))))
+                .build();
+    }
+
     // Get Jwt from header of the request
     public String getJwtFromHeader(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
@@ -46,62 +87,88 @@ public class JwtUtils {
 
     // Generate Jwt token
     public String generateJwtTokenFromUsername(UserDetails userDetails) {
+        return generateJwtTokenFromUsername(userDetails, null);
+    }
+
+    // Generate Jwt token belonging to a session; each token also gets its own ID (jti)
+    public String generateJwtTokenFromUsername(UserDetails userDetails, String sessionId) {
         String username = userDetails.getUsername();
-        return Jwts.builder().subject(username).issuedAt(new Date())
-                .expiration(new Date((new Date()).getTime() + Long.parseLong(jwtExpirationMS)))
-                .signWith(key()).compact();
+        JwtBuilder builder = Jwts.builder().id(UUID.randomUUID().toString()).subject(username).issuedAt(new Date())
+                .expiration(new Date((new Date()).getTime() + Long.parseLong(jwtExpirationMS)));
 
-    }
+        if (sessionId != null) {
+            builder.claim(CLAIM_SESSION_ID, sessionId);
+        }
 
-    // Verify and Decode and extract payload from Jwt token
-    public String getUserNameFromJwtToken(String token) {
-        try {
-            String username = Jwts.parser()
-                    .verifyWith((SecretKey) key())
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload()
-                    .getSubject();
+        // Embed identity and role so the filter can build the principal from claims alone
+        if (userDetails instanceof CustomUserDetails customUserDetails) {
+            builder.claim(CLAIM_USER_ID, customUserDetails.getUserId())
+                    .claim(CLAIM_ROLE, customUserDetails.getRoleName())
+                    .claim(CLAIM_ROLE_VERSION, customUserDetails.getRoleVersion());
+        }
 
-            return username;
+        return builder.signWith(signingKey).compact();
+    }
 
-            // Tampered JWT
-        } catch (io.jsonwebtoken.security.SignatureException e) {
-            throw new RuntimeException("Invalid JWT signature");
+    /**
+     * Verify the token signature and expiry and return its claims.
+     * A token that was already verified is answered from the cache without
+     * re-running the HMAC until it expires.
+     *
+     * @param token The compact JWT
+     * @return The verified claims, or empty if the token is invalid or expired
+     */
+    public Optional<Claims> verifyJwtToken(String token) {
+        if (token == null || token.isBlank()) {
+            return Optional.empty();
+        }
 
-            // Invalid JWT
-        } catch (MalformedJwtException e) {
-            throw new RuntimeException("Invalid JWT token");
+        String digest = digest(token);
+        Claims cached = verifiedTokens.getIfPresent(digest);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
 
-            // Expired JWT
+        try {
+            Claims claims = jwtParser.parseSignedClaims(token).getPayload();
+            if (claims.getExpiration() != null) {
+                verifiedTokens.put(digest, claims);
+            }
+            return Optional.of(claims);
         } catch (ExpiredJwtException e) {
-            throw new RuntimeException("Expired JWT token");
+            logger.error("JWT token is expired: {}", e.getMessage());
+        } catch (JwtException e) {
+            logger.error("Invalid JWT token: {}", e.getMessage());
+        } catch (IllegalArgumentException e) {
+            logger.error("JWT claims string is empty: {}", e.getMessage());
         }
+        return Optional.empty();
+    }
 
+    // Lifetime of access tokens, the longest any revocation needs to be kept
+    public long getJwtExpirationMs() {
+        return Long.parseLong(jwtExpirationMS);
     }
 
-    // Key encription
-    private Key key() {
-        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+    // Verify and Decode and extract payload from Jwt token
+    public String getUserNameFromJwtToken(String token) {
+        return verifyJwtToken(token)
+                .map(Claims::getSubject)
+                .orElseThrow(() -> new RuntimeException("Invalid JWT token"));
     }
 
     // Validate Jwt token
     public boolean validateJwtToken(String authToken) {
+        return verifyJwtToken(authToken).isPresent();
+    }
 
+    // Cache key for a token, so raw bearer tokens are never kept in memory
+    private static String digest(String token) {
         try {
-            System.out.println("Validating token");
-            Jwts.parser().verifyWith((SecretKey) key()).build().parseSignedClaims(authToken);
-            return true;
-        } catch (UnsupportedJwtException e) {
-            logger.error("Invalid JWT token: {}", e.getMessage());
-            return false;
-        } catch (IllegalArgumentException e) {
-            logger.error("JWT claims string is empty: {}", e.getMessage());
-            return false;
-        } catch (ExpiredJwtException e) {
-            logger.error("JWT token is expired: {}", e.getMessage());
-            return false;
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
         }
-
     }
 }
@@ -0,0 +1,39 @@
+package com.ndungutse.project_tracker.security;
+
+import com.ndungutse.project_tracker.exception.TooManyRequestsException;
+
+/**
+ * Admission control for login attempts, consulted before any password is
+ * hashed. Attempts are limited per principal (username or email) and per
+ * client IP. The default implementation keeps its state in process; a shared
+ * store can be plugged in for multi-node deployments by providing another
+ * bean of this type and setting spring.app.loginRateLimiter to a value other
+ * than "memory".
+ */
+public interface LoginRateLimiter {
+
+    /**
+     * Take one attempt from the principal's and the client's allowance
+     *
+     * @param principal The username or email being logged in as
+     * @param clientIp  The address the attempt came from
+     * @throws TooManyRequestsException if either allowance is exhausted or the principal is locked out
+     */
+    void acquire(String principal, String clientIp);
+
+    /**
+     * Record a failed attempt, extending the principal's lockout
+     *
+     * @param principal The username or email that failed to log in
+     * @param clientIp  The address the attempt came from
+     */
+    void recordFailure(String principal, String clientIp);
+
+    /**
+     * Record a successful attempt, clearing the principal's lockout
+     *
+     * @param principal The username or email that logged in
+     * @param clientIp  The address the attempt came from
+     */
+    void recordSuccess(String principal, String clientIp);
+}
@@ -0,0 +1,144 @@
+package com.ndungutse.project_tracker.security;
+
+import com.ndungutse.project_tracker.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs password hashing and verification on a small, bounded pool instead of
+ * the servlet request threads. When every worker is busy and the queue is
+ * full, callers are rejected immediately with a 429 rather than waiting, so a
+ * burst of logins cannot starve the rest of the API.
+ */
+@Component
+public class PasswordHashingExecutor {
+    private static final long RETRY_AFTER_SECONDS = 1;
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final Timer hashLatency;
+    private final long timeoutMs;
+
+    public PasswordHashingExecutor(
+            PasswordEncoder passwordEncoder,
+            MeterRegistry meterRegistry,
+            @Value("${spring.app.passwordHashThreads:0}") int threads,
+            @Value("${spring.app.passwordHashQueueCapacity:32}") int queueCapacity,
+            @Value("${spring.app.passwordHashTimeoutMs:5000}") long timeoutMs) {
+        this.passwordEncoder = passwordEncoder;
+        this.timeoutMs = timeoutMs;
+
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                poolSize,
+                poolSize,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.hashLatency = Timer.builder("password.hash.latency")
+                .description("Time spent hashing or verifying a password")
+                .register(meterRegistry);
+        Gauge.builder("password.hash.queue.depth", executor, e -> e.getQueue().size())
+                .description("Password hashing tasks waiting for a worker")
+                .register(meterRegistry);
+        Gauge.builder("password.hash.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Password hashing tasks currently running")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Hash a raw password on the hashing pool
+     *
+     * @param rawPassword The password to hash
+     * @return The encoded password
+     * @throws TooManyRequestsException if the pool is saturated
+     */
+    public String encode(String rawPassword) {
+        return execute(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    /**
+     * Run a task that hashes or verifies a password on the hashing pool and
+     * wait for its result. Runtime exceptions thrown by the task (for example
+     * BadCredentialsException) are rethrown unchanged.
+     *
+     * @param task The work to run
+     * @return The task result
+     * @throws TooManyRequestsException if the pool is saturated or the task times out
+     */
+    public <T> T execute(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(() -> hashLatency.recordCallable(task));
+        } catch (RejectedExecutionException e) {
+            throw new TooManyRequestsException("Too many authentication requests, please retry shortly",
+                    RETRY_AFTER_SECONDS);
+        }
+
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new TooManyRequestsException("Authentication timed out, please retry shortly",
+                    RETRY_AFTER_SECONDS);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for password hashing", e);
+        }
+    }
+
+    /**
+     * Queue low-priority hashing work without waiting for it. The work is
+     * dropped when the pool is saturated so it never competes with logins for
+     * queue space.
+     *
+     * @param task The work to run
+     * @return true if the task was accepted
+     */
+    public boolean submitInBackground(Runnable task) {
+        // Leave at least half the queue free for requests that are waiting on a result
+        if (executor.getQueue().remainingCapacity() <= executor.getQueue().size()) {
+            return false;
+        }
+        try {
+            executor.execute(() -> hashLatency.record(task));
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,49 @@
+package com.ndungutse.project_tracker.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Shared, immutable authority lists per role name. There are only a handful
+ * of roles, so every principal of a role reuses the same list instead of
+ * allocating one per request. The built-in roles also get a bit each, so a
+ * role check is a single AND instead of a scan of the authorities.
+ */
+public final class RoleAuthorities {
+    public static final int ADMIN = 1;
+    public static final int MANAGER = 1 << 1;
+    public static final int DEVELOPER = 1 << 2;
+    public static final int CONTRACTOR = 1 << 3;
+
+    private static final Map<String, List<GrantedAuthority>> AUTHORITIES = new ConcurrentHashMap<>();
+
+    private RoleAuthorities() {
+    }
+
+    public static List<GrantedAuthority> forRole(String roleName) {
+        if (roleName == null) {
+            return Collections.emptyList();
+        }
+        return AUTHORITIES.computeIfAbsent(roleName,
+                name -> List.of(new SimpleGrantedAuthority("ROLE_" + name)));
+    }
+
+    // Bit of a built-in role, or 0 for roles created at runtime
+    public static int maskFor(String roleName) {
+        if (roleName == null) {
+            return 0;
+        }
+        return switch (roleName) {
+            case "ADMIN" -> ADMIN;
+            case "MANAGER" -> MANAGER;
+            case "DEVELOPER" -> DEVELOPER;
+            case "CONTRACTOR" -> CONTRACTOR;
+            default -> 0;
+        };
+    }
+}
@@ -0,0 +1,63 @@
+package com.ndungutse.project_tracker.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Remembers users whose role changed (or who were deleted) after tokens were
+ * issued to them. A token whose role version no longer matches is re-checked
+ * against the database; every other token is trusted from its claims alone.
+ * Entries only need to outlive the tokens they invalidate, so they expire
+ * after the access token lifetime.
+ *
+ * The registry is local to this node and lost on restart, so it only makes
+ * the change visible here at once. Role changes and deletions also revoke
+ * the user's sessions, which is persisted and synced to every node.
+ */
+@Component
+public class RoleVersionRegistry {
+    private static final long DELETED = -1L;
+
+    private final Cache<Long, Long> changedVersions;
+
+    public RoleVersionRegistry(@Value("${spring.app.jwtExpirationMs}") String jwtExpirationMs) {
+        this.changedVersions = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(Long.parseLong(jwtExpirationMs)))
+                .build();
+    }
+
+    /**
+     * Record the new role version of a user
+     *
+     * @param userId      The user whose role changed
+     * @param roleVersion The role version now stored for the user
+     */
+    public void roleChanged(Long userId, long roleVersion) {
+        changedVersions.put(userId, roleVersion);
+    }
+
+    /**
+     * Record that a user no longer exists, so all of their tokens are re-checked
+     *
+     * @param userId The deleted user
+     */
+    public void userDeleted(Long userId) {
+        changedVersions.put(userId, DELETED);
+    }
+
+    /**
+     * Check whether a token's role version is known to be out of date
+     *
+     * @param userId       The user the token was issued to
+     * @param tokenVersion The role version embedded in the token
+     * @return true if the database must be consulted for this principal
+     */
+    public boolean isStale(Long userId, long tokenVersion) {
+        Long current = changedVersions.getIfPresent(userId);
+        return current != null && current != tokenVersion;
+    }
+}
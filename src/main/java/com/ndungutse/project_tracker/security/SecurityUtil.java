@@ -1,50 +1,36 @@
 package com.ndungutse.project_tracker.security;
 
 import com.ndungutse.project_tracker.model.Task;
-import com.ndungutse.project_tracker.model.User;
-import com.ndungutse.project_tracker.repository.TaskRepository;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 
+import java.util.Objects;
+
 @Component
 public class SecurityUtil {
 
-    private final TaskRepository taskRepository;
-
-    public SecurityUtil(TaskRepository taskRepository) {
-        this.taskRepository = taskRepository;
-    }
-
     /**
      * Get the currently authenticated user
      * 
-     * @return The authenticated user
+     * @return The authenticated principal
      * @throws AccessDeniedException if no user is authenticated
      */
-    public User getCurrentUser() {
+    public UserPrincipal getCurrentUser() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         if (authentication == null || !authentication.isAuthenticated()) {
             throw new AccessDeniedException("User not authenticated");
         }
-        return ((CustomUserDetails) authentication.getPrincipal()).getUser();
-    }
 
-    /**
-     * Check if the current user is assigned to a task
-     * 
-     * @param taskId The ID of the task to check
-     * @return true if the user is assigned to the task, false otherwise
-     * @throws AccessDeniedException if the task doesn't exist
-     */
-    public boolean isUserAssignedToTask(Long taskId) {
-        Task task = taskRepository.findById(taskId)
-                .orElseThrow(() -> new AccessDeniedException("Task not found"));
-
-        User currentUser = getCurrentUser();
-        return task.getAssignedUser() != null &&
-                task.getAssignedUser().getId().equals(currentUser.getId());
+        Object principal = authentication.getPrincipal();
+        if (principal instanceof UserPrincipal userPrincipal) {
+            return userPrincipal;
+        }
+        if (principal instanceof CustomUserDetails userDetails) {
+            return UserPrincipal.fromUser(userDetails.getUser());
+        }
+        throw new AccessDeniedException("User not authenticated");
     }
 
     /**
@@ -55,29 +41,49 @@ public class SecurityUtil {
      */
     public boolean hasRole(String role) {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        return authentication != null &&
-                authentication.getAuthorities().stream()
-                        .anyMatch(auth -> auth.getAuthority().equals("ROLE_" + role));
+        if (authentication == null) {
+            return false;
+        }
+        if (authentication.getPrincipal() instanceof UserPrincipal principal) {
+            int mask = RoleAuthorities.maskFor(role);
+            if (mask != 0) {
+                return principal.hasAnyRole(mask);
+            }
+        }
+        String authority = "ROLE_" + role;
+        return authentication.getAuthorities().stream()
+                .anyMatch(auth -> auth.getAuthority().equals(authority));
     }
 
     /**
-     * Validate that the current user can update a task
+     * Validate that the current user can update a task that is already loaded.
+     * No query is made; the assigned user is read from the entity.
      * 
-     * @param taskId The ID of the task to validate
+     * @param task The task about to be updated
      * @throws AccessDeniedException if the user cannot update the task
      */
-    public void validateTaskUpdateAccess(Long taskId) {
-        // Admin and Manager can update any task
-        if (hasRole("ADMIN") || hasRole("MANAGER")) {
-            return;
-        }
-
-        // Developers can only update tasks assigned to them
-        if (hasRole("DEVELOPER") && !isUserAssignedToTask(taskId)) {
+    public void validateTaskUpdateAccess(Task task) {
+        UserPrincipal currentUser = validateTaskUpdateRole();
+        if (currentUser.hasAnyRole(RoleAuthorities.DEVELOPER)
+                && !Objects.equals(task.getAssignedUserId(), currentUser.getUserId())) {
             throw new AccessDeniedException("You can only update tasks assigned to you");
         }
+    }
 
-        // Other roles cannot update tasks
-        throw new AccessDeniedException("You don't have permission to update this task");
+    /**
+     * Validate that the current user's role can update tasks at all, so other
+     * roles are rejected before anything is loaded
+     * 
+     * @return The current user
+     * @throws AccessDeniedException if the role can never update tasks
+     */
+    public UserPrincipal validateTaskUpdateRole() {
+        UserPrincipal currentUser = getCurrentUser();
+
+        // Admin and Manager can update any task, Developers only their own
+        if (!currentUser.hasAnyRole(RoleAuthorities.ADMIN | RoleAuthorities.MANAGER | RoleAuthorities.DEVELOPER)) {
+            throw new AccessDeniedException("You don't have permission to update this task");
+        }
+        return currentUser;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,177 @@
+package com.ndungutse.project_tracker.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.ndungutse.project_tracker.model.RevokedToken;
+import com.ndungutse.project_tracker.repository.RevokedTokenRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Revocation list for access tokens. Revoked IDs are persisted in
+ * revoked_tokens and mirrored in memory: a Bloom filter answers the common
+ * "not revoked" case without any I/O, and an exact map confirms hits. The
+ * database is only read when the filter reports a hit the map cannot confirm,
+ * which is a false positive. Other nodes' revocations are pulled in by a
+ * periodic sync, and entries are pruned once the tokens they cover expire.
+ */
+@Service
+public class TokenRevocationService {
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationService.class);
+
+    // Overlap between syncs so a revocation committed late by another node is not missed
+    private static final Duration SYNC_OVERLAP = Duration.ofSeconds(30);
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final long expectedEntries;
+    private final double falsePositiveRate;
+
+    // Token ID -> expiry of the last token it can cover
+    private final Map<String, Instant> revoked = new ConcurrentHashMap<>();
+    // IDs the database confirmed are not revoked, so a false positive is only queried once
+    private final Cache<String, Boolean> notRevoked;
+    private volatile BloomFilter bloomFilter;
+    private volatile Instant lastSync = Instant.EPOCH;
+
+    private final Counter bloomMisses;
+    private final Counter confirmedHits;
+    private final Counter databaseChecks;
+
+    public TokenRevocationService(
+            RevokedTokenRepository revokedTokenRepository,
+            MeterRegistry meterRegistry,
+            @Value("${spring.app.revocationExpectedEntries:100000}") long expectedEntries,
+            @Value("${spring.app.revocationFalsePositiveRate:0.01}") double falsePositiveRate) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.expectedEntries = expectedEntries;
+        this.falsePositiveRate = falsePositiveRate;
+        this.bloomFilter = new BloomFilter(expectedEntries, falsePositiveRate);
+        this.notRevoked = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(Duration.ofMinutes(1))
+                .build();
+
+        this.bloomMisses = checkCounter(meterRegistry, "bloom_miss");
+        this.confirmedHits = checkCounter(meterRegistry, "revoked");
+        this.databaseChecks = checkCounter(meterRegistry, "database");
+        Gauge.builder("token.revocation.entries", revoked, Map::size)
+                .description("Revoked token IDs held in memory")
+                .register(meterRegistry);
+    }
+
+    private static Counter checkCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("token.revocation.checks")
+                .tag("result", result)
+                .description("Revocation lookups by how they were answered")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Revoke a token ID until the given time
+     *
+     * @param tokenId   The jti of an access token or the sid of a session
+     * @param expiresAt When the last token carrying the ID expires
+     */
+    @Transactional
+    public void revoke(String tokenId, Instant expiresAt) {
+        if (tokenId == null || !expiresAt.isAfter(Instant.now())) {
+            return;
+        }
+        revokedTokenRepository.save(RevokedToken.builder()
+                .tokenId(tokenId)
+                .expiresAt(expiresAt)
+                .revokedAt(Instant.now())
+                .build());
+        remember(tokenId, expiresAt);
+    }
+
+    /**
+     * Check whether a token ID has been revoked
+     *
+     * @param tokenId The jti or sid claim of a verified token, may be null
+     * @return true if tokens carrying the ID must be rejected
+     */
+    public boolean isRevoked(String tokenId) {
+        if (tokenId == null) {
+            return false;
+        }
+        if (!bloomFilter.mightContain(tokenId)) {
+            bloomMisses.increment();
+            return false;
+        }
+        if (revoked.containsKey(tokenId)) {
+            confirmedHits.increment();
+            return true;
+        }
+        if (notRevoked.getIfPresent(tokenId) != null) {
+            return false;
+        }
+
+        databaseChecks.increment();
+        return revokedTokenRepository.findById(tokenId)
+                .filter(token -> token.getExpiresAt().isAfter(Instant.now()))
+                .map(token -> {
+                    remember(token.getTokenId(), token.getExpiresAt());
+                    return true;
+                })
+                .orElseGet(() -> {
+                    notRevoked.put(tokenId, Boolean.TRUE);
+                    return false;
+                });
+    }
+
+    /**
+     * Pull revocations recorded by any node since the last sync. The first run
+     * loads every revocation that has not expired yet.
+     */
+    @Scheduled(fixedDelayString = "${spring.app.revocationSyncMs:10000}")
+    public void sync() {
+        Instant now = Instant.now();
+        Instant since = lastSync.equals(Instant.EPOCH) ? Instant.EPOCH : lastSync.minus(SYNC_OVERLAP);
+        List<RevokedToken> recent = revokedTokenRepository.findByRevokedAtAfterAndExpiresAtAfter(since, now);
+        recent.forEach(token -> remember(token.getTokenId(), token.getExpiresAt()));
+        lastSync = now;
+    }
+
+    /**
+     * Drop revocations whose tokens have all expired, both in the database and
+     * in memory. The Bloom filter cannot delete, so it is rebuilt from what is
+     * left, growing if the list outgrew its original size.
+     */
+    @Scheduled(fixedDelayString = "${spring.app.revocationPruneMs:300000}")
+    @Transactional
+    public void prune() {
+        Instant now = Instant.now();
+        int deleted = revokedTokenRepository.deleteExpired(now);
+
+        synchronized (this) {
+            revoked.values().removeIf(expiresAt -> !expiresAt.isAfter(now));
+            BloomFilter rebuilt = new BloomFilter(Math.max(expectedEntries, revoked.size() * 2L), falsePositiveRate);
+            revoked.keySet().forEach(rebuilt::put);
+            bloomFilter = rebuilt;
+        }
+        if (deleted > 0) {
+            logger.debug("Pruned {} expired token revocations", deleted);
+        }
+    }
+
+    // Guarded so a concurrent prune cannot swap in a filter that misses this ID
+    private synchronized void remember(String tokenId, Instant expiresAt) {
+        revoked.merge(tokenId, expiresAt, (current, added) -> current.isAfter(added) ? current : added);
+        bloomFilter.put(tokenId);
+        notRevoked.invalidate(tokenId);
+    }
+}
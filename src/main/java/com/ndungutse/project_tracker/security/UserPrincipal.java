@@ -0,0 +1,94 @@
+package com.ndungutse.project_tracker.security;
+
+import com.ndungutse.project_tracker.model.User;
+import io.jsonwebtoken.Claims;
+import org.springframework.security.core.AuthenticatedPrincipal;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.List;
+
+/**
+ * Immutable, stateless principal for an authenticated request.
+ * Built straight from verified JWT claims, so no user lookup is needed.
+ */
+public final class UserPrincipal implements AuthenticatedPrincipal {
+    private final Long userId;
+    private final String username;
+    private final String roleName;
+    private final long roleVersion;
+    private final List<GrantedAuthority> authorities;
+    private final int roleMask;
+
+    public UserPrincipal(Long userId, String username, String roleName, long roleVersion) {
+        this.userId = userId;
+        this.username = username;
+        this.roleName = roleName;
+        this.roleVersion = roleVersion;
+        this.authorities = RoleAuthorities.forRole(roleName);
+        this.roleMask = RoleAuthorities.maskFor(roleName);
+    }
+
+    /**
+     * Build a principal from verified claims
+     *
+     * @param claims Claims of a verified token
+     * @return The principal, or null if the token predates the userId/role claims
+     */
+    public static UserPrincipal fromClaims(Claims claims) {
+        Long userId = claims.get(JwtUtils.CLAIM_USER_ID, Long.class);
+        String roleName = claims.get(JwtUtils.CLAIM_ROLE, String.class);
+        Long roleVersion = claims.get(JwtUtils.CLAIM_ROLE_VERSION, Long.class);
+        if (userId == null || roleName == null || roleVersion == null) {
+            return null;
+        }
+        return new UserPrincipal(userId, claims.getSubject(), roleName, roleVersion);
+    }
+
+    public static UserPrincipal fromUser(User user) {
+        return new UserPrincipal(
+                user.getId(),
+                user.getUsername(),
+                user.getRole() != null ? user.getRole().getRoleName() : null,
+                user.getRoleVersion());
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public String getRoleName() {
+        return roleName;
+    }
+
+    public long getRoleVersion() {
+        return roleVersion;
+    }
+
+    public List<GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    /**
+     * Check the principal's role against a set of built-in roles
+     *
+     * @param roles Bits from {@link RoleAuthorities}, e.g. ADMIN | MANAGER
+     * @return true if the principal has one of the roles
+     */
+    public boolean hasAnyRole(int roles) {
+        return (roleMask & roles) != 0;
+    }
+
+    @Override
+    public String getName() {
+        return username;
+    }
+
+    @Override
+    public String toString() {
+        return "UserPrincipal{userId=" + userId + ", username='" + username + "', roleName='" + roleName + "'}";
+    }
+}
@@ -30,6 +30,23 @@ public class AuditService {
         logAction(entityType, entityId, "DELETE", username, data);
     }
 
+    // One audit entry per entity, written in a single round trip
+    public void logUpdateActions(String entityType, List<Long> entityIds, String username, Object data) {
+        if (entityIds.isEmpty()) {
+            return;
+        }
+        try {
+            String dataSnapshot = objectMapper.writeValueAsString(data);
+            List<AuditLog> auditLogs = entityIds.stream()
+                    .map(entityId -> new AuditLog(entityType, entityId, "UPDATE", username, dataSnapshot))
+                    .toList();
+            auditLogRepository.saveAll(auditLogs);
+        } catch (JsonProcessingException e) {
+            // Log the error but don't fail the main operation
+            System.err.println("Error serializing data for audit log: " + e.getMessage());
+        }
+    }
+
     private void logAction(String entityType, Long entityId, String action, String username, Object data) {
         try {
             String dataSnapshot = objectMapper.writeValueAsString(data);
@@ -2,104 +2,174 @@ package com.ndungutse.project_tracker.service;
 
 import com.ndungutse.project_tracker.dto.LoginRequest;
 import com.ndungutse.project_tracker.dto.LoginResponse;
+import com.ndungutse.project_tracker.dto.RefreshTokenRequest;
 import com.ndungutse.project_tracker.dto.RegisterRequest;
+import com.ndungutse.project_tracker.exception.ConflictException;
 import com.ndungutse.project_tracker.model.Role;
 import com.ndungutse.project_tracker.model.User;
-import com.ndungutse.project_tracker.repository.RoleRepository;
 import com.ndungutse.project_tracker.repository.UserRepository;
 import com.ndungutse.project_tracker.security.CustomUserDetails;
 import com.ndungutse.project_tracker.security.JwtUtils;
+import com.ndungutse.project_tracker.security.LoginRateLimiter;
+import com.ndungutse.project_tracker.security.PasswordHashingExecutor;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
 
 @Service
 public class AuthService {
+    // Suffixed usernames tried before registration gives up on a taken local part
+    private static final int USERNAME_ATTEMPTS = 5;
+
     private final AuthenticationManager authenticationManager;
     private final JwtUtils jwtUtils;
     private final UserRepository userRepository;
-    private final RoleRepository roleRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final RoleRegistry roleRegistry;
+    private final PasswordHashingExecutor passwordHashingExecutor;
+    private final PasswordUpgradeService passwordUpgradeService;
+    private final RefreshTokenService refreshTokenService;
+    private final SessionService sessionService;
+    private final LoginRateLimiter loginRateLimiter;
+    private final TransactionTemplate transactionTemplate;
 
     public AuthService(AuthenticationManager authenticationManager, JwtUtils jwtUtils,
-            UserRepository userRepository, RoleRepository roleRepository, PasswordEncoder passwordEncoder) {
+            UserRepository userRepository, RoleRegistry roleRegistry,
+            PasswordHashingExecutor passwordHashingExecutor, PasswordUpgradeService passwordUpgradeService,
+            RefreshTokenService refreshTokenService, SessionService sessionService,
+            LoginRateLimiter loginRateLimiter, PlatformTransactionManager transactionManager) {
         this.authenticationManager = authenticationManager;
         this.jwtUtils = jwtUtils;
         this.userRepository = userRepository;
-        this.roleRepository = roleRepository;
-        this.passwordEncoder = passwordEncoder;
+        this.roleRegistry = roleRegistry;
+        this.passwordHashingExecutor = passwordHashingExecutor;
+        this.passwordUpgradeService = passwordUpgradeService;
+        this.refreshTokenService = refreshTokenService;
+        this.sessionService = sessionService;
+        this.loginRateLimiter = loginRateLimiter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
-    public LoginResponse login(LoginRequest loginRequest) {
-        // Authenticate user with username or email
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(
-                        loginRequest.getUsernameOrEmail(),
-                        loginRequest.getPassword()));
+    public LoginResponse login(LoginRequest loginRequest, String clientIp) {
+        String principal = loginRequest.getUsernameOrEmail();
+
+        // Reject throttled or locked out attempts before any password is hashed
+        loginRateLimiter.acquire(principal, clientIp);
+
+        // Authenticate user with username or email; BCrypt runs on the bounded hashing pool
+        Authentication authentication;
+        try {
+            authentication = passwordHashingExecutor.execute(() -> authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(
+                            principal,
+                            loginRequest.getPassword())));
+        } catch (AuthenticationException e) {
+            loginRateLimiter.recordFailure(principal, clientIp);
+            throw e;
+        }
+        loginRateLimiter.recordSuccess(principal, clientIp);
 
         // Get authenticated user details
         CustomUserDetails userDetails = (CustomUserDetails) authentication.getPrincipal();
 
-        // Generate JWT token
-        String token = jwtUtils.generateJwtTokenFromUsername(userDetails);
+        // Bring the stored hash up to the current cost without delaying the response
+        passwordUpgradeService.upgradeIfNeeded(userDetails.getUser(), loginRequest.getPassword());
 
-        // Build and return response
-        return LoginResponse.builder()
-                .token(token)
-                .userId(userDetails.getUserId())
-                .username(userDetails.getUsername())
-                .email(userDetails.getUser().getEmail())
-                .role(userDetails.getRoleName())
-                .build();
+        return buildLoginResponse(userDetails, refreshTokenService.issue(userDetails.getUser()));
     }
 
-    @Transactional
+    // Not transactional as a whole: BCrypt runs first, so no connection is held while it hashes
     public LoginResponse register(RegisterRequest registerRequest) {
         // Check if email already exists
         if (userRepository.existsByEmail(registerRequest.getEmail())) {
             throw new IllegalArgumentException("Email already registered");
         }
 
-        // Generate username from email (take part before @)
-        String username = registerRequest.getEmail().split("@")[0];
+        // Generate username from email (take part before @), suffixed if another user has it
+        String username = uniqueUsername(registerRequest.getEmail());
 
         // Get CONTRACTOR role
-        Role contractorRole = roleRepository.findByRoleName("CONTRACTOR")
+        Role contractorRole = roleRegistry.findByName("CONTRACTOR")
                 .orElseThrow(() -> new IllegalArgumentException("CONTRACTOR role not found"));
 
         // Create new user
         User user = new User();
         user.setEmail(registerRequest.getEmail());
         user.setUsername(username);
-        user.setPassword(passwordEncoder.encode(registerRequest.getPassword()));
+        user.setPassword(passwordHashingExecutor.encode(registerRequest.getPassword()));
         user.setRole(contractorRole);
 
-        // Save user
-        user = userRepository.save(user);
+        // Save user; the only step that needs a transaction
+        User savedUser;
+        try {
+            savedUser = transactionTemplate.execute(status -> userRepository.save(user));
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent registration took the email or the username after the checks above
+            throw new ConflictException("Email or username already registered");
+        }
 
-        // Authenticate the newly registered user
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(
-                        registerRequest.getEmail(),
-                        registerRequest.getPassword()));
+        // The password was just set, so issue the token without verifying it again
+        CustomUserDetails userDetails = new CustomUserDetails(savedUser);
 
-        // Get authenticated user details
-        CustomUserDetails userDetails = (CustomUserDetails) authentication.getPrincipal();
+        return buildLoginResponse(userDetails, refreshTokenService.issue(userDetails.getUser()));
+    }
+
+    // The email's local part, or that part with a random number appended while the name is taken
+    private String uniqueUsername(String email) {
+        String base = email.split("@")[0];
+        String username = base;
+        for (int attempt = 0; userRepository.existsByUsername(username); attempt++) {
+            if (attempt == USERNAME_ATTEMPTS) {
+                throw new ConflictException("Could not generate a unique username, please retry");
+            }
+            username = base + ThreadLocalRandom.current().nextInt(1000, 10000);
+        }
+        return username;
+    }
+
+    /**
+     * Renew a session from a refresh token. No password is hashed; the token
+     * is looked up by its digest and rotated.
+     *
+     * @param refreshTokenRequest The refresh token issued at login or by a previous refresh
+     * @return A new access token and refresh token
+     */
+    @Transactional(noRollbackFor = BadCredentialsException.class)
+    public LoginResponse refresh(RefreshTokenRequest refreshTokenRequest) {
+        RefreshTokenService.IssuedToken rotation = refreshTokenService.rotate(refreshTokenRequest.getRefreshToken());
+        return buildLoginResponse(new CustomUserDetails(rotation.user()), rotation);
+    }
+
+    /**
+     * End the session of the presented access token. Its refresh tokens stop
+     * working and every access token of the session is revoked.
+     *
+     * @param accessToken The compact JWT from the Authorization header
+     */
+    public void logout(String accessToken) {
+        sessionService.logout(accessToken);
+    }
 
-        // Generate JWT token
-        String token = jwtUtils.generateJwtTokenFromUsername(userDetails);
+    private LoginResponse buildLoginResponse(CustomUserDetails userDetails, RefreshTokenService.IssuedToken refreshToken) {
+        // Generate JWT token tied to the refresh token family, so the session can be revoked as a whole
+        String token = jwtUtils.generateJwtTokenFromUsername(userDetails, refreshToken.familyId());
 
         // Build and return response
         return LoginResponse.builder()
                 .token(token)
+                .refreshToken(refreshToken.token())
                 .userId(userDetails.getUserId())
                 .username(userDetails.getUsername())
                 .email(userDetails.getUser().getEmail())
                 .role(userDetails.getRoleName())
                 .build();
     }
-}
\ No newline at end of file
+}
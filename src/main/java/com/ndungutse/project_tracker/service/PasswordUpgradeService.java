@@ -0,0 +1,79 @@
+package com.ndungutse.project_tracker.service;
+
+import com.ndungutse.project_tracker.model.User;
+import com.ndungutse.project_tracker.repository.UserRepository;
+import com.ndungutse.project_tracker.security.CustomUserDetailsService;
+import com.ndungutse.project_tracker.security.PasswordHashingExecutor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Upgrades stored password hashes to the current algorithm and cost. The raw
+ * password is only available at login, so hashes are upgraded one user at a
+ * time after a successful authentication rather than in bulk.
+ */
+@Service
+public class PasswordUpgradeService {
+    private static final Logger logger = LoggerFactory.getLogger(PasswordUpgradeService.class);
+
+    private final UserRepository userRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingExecutor passwordHashingExecutor;
+    private final CustomUserDetailsService userDetailsService;
+    private final TransactionTemplate transactionTemplate;
+
+    public PasswordUpgradeService(UserRepository userRepository, PasswordEncoder passwordEncoder,
+            PasswordHashingExecutor passwordHashingExecutor, CustomUserDetailsService userDetailsService,
+            PlatformTransactionManager transactionManager) {
+        this.userRepository = userRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.passwordHashingExecutor = passwordHashingExecutor;
+        this.userDetailsService = userDetailsService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Re-hash the password of a user who just authenticated, if their stored
+     * hash uses a different algorithm or cost than the current one. The work
+     * runs on the hashing pool after the login response is sent; if the pool is
+     * busy the upgrade is skipped and retried on a later login.
+     *
+     * @param user        The authenticated user, carrying the stored hash
+     * @param rawPassword The password the user just authenticated with
+     */
+    public void upgradeIfNeeded(User user, String rawPassword) {
+        String storedHash = user.getPassword();
+        if (storedHash == null || !passwordEncoder.upgradeEncoding(storedHash)) {
+            return;
+        }
+
+        Long userId = user.getId();
+        String username = user.getUsername();
+        String email = user.getEmail();
+        boolean accepted = passwordHashingExecutor.submitInBackground(() -> {
+            try {
+                String newHash = passwordEncoder.encode(rawPassword);
+                Integer updated = transactionTemplate.execute(status -> {
+                    int rows = userRepository.updatePasswordIfUnchanged(userId, storedHash, newHash);
+                    if (rows > 0) {
+                        userDetailsService.evict(username, email);
+                    }
+                    return rows;
+                });
+                if (updated != null && updated > 0) {
+                    logger.debug("Upgraded password hash for user {}", userId);
+                }
+            } catch (RuntimeException e) {
+                // The old hash is still valid, so the next login simply tries again
+                logger.warn("Password hash upgrade failed for user {}: {}", userId, e.getMessage());
+            }
+        });
+        if (!accepted) {
+            logger.debug("Skipped password hash upgrade for user {}, hashing pool busy", userId);
+        }
+    }
+}
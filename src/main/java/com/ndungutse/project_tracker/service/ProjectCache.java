@@ -0,0 +1,124 @@
+package com.ndungutse.project_tracker.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.ndungutse.project_tracker.dto.ProjectDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Read-through cache of projects by ID, bounded by size and age. IDs that do
+ * not exist are cached as well, for a shorter time, so repeated lookups of a
+ * missing project do not reach the database either. Callers receive copies,
+ * so a cached project cannot be changed through a returned DTO.
+ */
+@Component
+public class ProjectCache {
+
+    private final Cache<Long, Optional<ProjectDTO>> projects;
+    private final Counter invalidations;
+
+    public ProjectCache(
+            MeterRegistry meterRegistry,
+            @Value("${spring.app.projectCacheSize:10000}") long cacheSize,
+            @Value("${spring.app.projectCacheTtlMs:300000}") long cacheTtlMs,
+            @Value("${spring.app.projectCacheNegativeTtlMs:30000}") long negativeTtlMs) {
+        this.projects = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfter(Expiry.creating((Long id, Optional<ProjectDTO> project) ->
+                        Duration.ofMillis(project.isPresent() ? cacheTtlMs : negativeTtlMs)))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, projects, "projects");
+        Gauge.builder("cache.hit.ratio", projects, cache -> cache.stats().hitRate())
+                .tag("cache", "projects")
+                .description("Share of project lookups answered from the cache")
+                .register(meterRegistry);
+        this.invalidations = Counter.builder("cache.invalidations")
+                .tag("cache", "projects")
+                .description("Entries removed because the project was created, changed or deleted")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Get a project, loading it on a miss
+     *
+     * @param id     The project ID
+     * @param loader Reads the project from the database
+     * @return The project, or empty if it does not exist
+     */
+    public Optional<ProjectDTO> get(Long id, Function<Long, Optional<ProjectDTO>> loader) {
+        return projects.get(id, loader).map(ProjectCache::copy);
+    }
+
+    /**
+     * Get several projects, loading all misses with one call
+     *
+     * @param ids    The project IDs
+     * @param loader Reads the given projects from the database, keyed by ID; missing ones are left out
+     * @return The projects that exist, keyed by ID
+     */
+    public Map<Long, ProjectDTO> getAll(Collection<Long> ids, Function<Set<Long>, Map<Long, ProjectDTO>> loader) {
+        Map<Long, Optional<ProjectDTO>> cached = projects.getAll(ids, missing -> {
+            Map<Long, ProjectDTO> found = loader.apply(Set.copyOf(missing));
+            Map<Long, Optional<ProjectDTO>> loaded = new HashMap<>();
+            missing.forEach(id -> loaded.put(id, Optional.ofNullable(found.get(id))));
+            return loaded;
+        });
+
+        Map<Long, ProjectDTO> existing = new LinkedHashMap<>();
+        cached.forEach((id, project) -> project.ifPresent(value -> existing.put(id, copy(value))));
+        return existing;
+    }
+
+    /**
+     * Remove a project from the cache. Runs immediately and again after the
+     * surrounding transaction commits, so a concurrent request cannot re-cache
+     * the pre-commit state.
+     *
+     * @param id The project ID
+     */
+    public void evict(Long id) {
+        projects.invalidate(id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    projects.invalidate(id);
+                }
+            });
+        }
+        invalidations.increment();
+    }
+
+    /**
+     * Hit, miss and eviction counters of the project cache
+     *
+     * @return A snapshot of the cache statistics
+     */
+    public CacheStats getCacheStats() {
+        return projects.stats();
+    }
+
+    private static ProjectDTO copy(ProjectDTO project) {
+        return new ProjectDTO(project.getId(), project.getName(), project.getDescription(), project.getDeadline(),
+                project.isStatus());
+    }
+}
@@ -0,0 +1,127 @@
+package com.ndungutse.project_tracker.service;
+
+import com.ndungutse.project_tracker.model.Project;
+import com.ndungutse.project_tracker.repository.ProjectSpecifications;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.function.Function;
+
+/**
+ * Position after the last project of a slice, encoded as an opaque string
+ * like {@link TaskCursor}. Each sort key orders by one attribute and then by
+ * id, matching an index on (attribute, id); rows without the attribute come
+ * last.
+ *
+ * @param sortKey The ordering the cursor belongs to
+ * @param value   The sort key value of the last row, null for ID order or a missing value
+ * @param id      The ID of the last row
+ */
+public record ProjectCursor(SortKey sortKey, String value, Long id) {
+    private static final String VERSION = "v1";
+    // Marks a present value, so an empty name and a missing one encode differently
+    private static final String PRESENT = "=";
+
+    public enum SortKey {
+        ID(null, false, null),
+        DEADLINE("deadline", true, project -> project.getDeadline() == null ? null : project.getDeadline().toString()),
+        STATUS("status", false, project -> Boolean.toString(project.isStatus())),
+        NAME("name", true, Project::getName);
+
+        private final String attribute;
+        private final boolean nullable;
+        private final Function<Project, String> value;
+
+        SortKey(String attribute, boolean nullable, Function<Project, String> value) {
+            this.attribute = attribute;
+            this.nullable = nullable;
+            this.value = value;
+        }
+
+        public Sort sort() {
+            return attribute == null
+                    ? Sort.by(Sort.Order.asc("id"))
+                    : Sort.by(Sort.Order.asc(attribute).nullsLast(), Sort.Order.asc("id"));
+        }
+
+        public static SortKey from(String sort) {
+            if (sort == null || sort.isBlank() || sort.equalsIgnoreCase("id")) {
+                return ID;
+            }
+            for (SortKey key : values()) {
+                if (key.attribute != null && key.attribute.equalsIgnoreCase(sort)) {
+                    return key;
+                }
+            }
+            throw new IllegalArgumentException("Unsupported sort: " + sort + " (use id, deadline, status or name)");
+        }
+    }
+
+    public static ProjectCursor after(SortKey sortKey, Project last) {
+        return new ProjectCursor(sortKey, sortKey.value == null ? null : sortKey.value.apply(last), last.getId());
+    }
+
+    // Rows after the cursor that have the sort attribute set, or, once past them, the remaining rows without it
+    public Specification<Project> toSpecification() {
+        return switch (sortKey) {
+            case ID -> ProjectSpecifications.afterId(id);
+            case DEADLINE -> value == null
+                    ? ProjectSpecifications.missing("deadline", id)
+                    : ProjectSpecifications.after("deadline", LocalDate.parse(value), id);
+            case STATUS -> ProjectSpecifications.after("status", Boolean.parseBoolean(value), id);
+            case NAME -> value == null
+                    ? ProjectSpecifications.missing("name", id)
+                    : ProjectSpecifications.after("name", value, id);
+        };
+    }
+
+    /**
+     * Rows without the sort attribute that follow the ones {@link #toSpecification}
+     * selects, or null when there are none. They are read separately so each
+     * query stays on a single range of the index.
+     */
+    public Specification<Project> remainderSpecification() {
+        return sortKey.nullable && value != null ? ProjectSpecifications.missing(sortKey.attribute, null) : null;
+    }
+
+    public String encode() {
+        String raw = String.join("|", VERSION, sortKey.name(), id.toString(), value == null ? "" : PRESENT + value);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ProjectCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            // The value goes last since a name may contain the separator
+            String[] parts = raw.split("\\|", 4);
+            if (parts.length != 4 || !VERSION.equals(parts[0])) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            SortKey sortKey = SortKey.valueOf(parts[1]);
+            Long id = Long.parseLong(parts[2]);
+            if (parts[3].isEmpty()) {
+                if (sortKey == SortKey.STATUS) {
+                    throw new IllegalArgumentException("Invalid cursor");
+                }
+                return new ProjectCursor(sortKey, null, id);
+            }
+            if (!parts[3].startsWith(PRESENT) || sortKey == SortKey.ID) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            String value = parts[3].substring(PRESENT.length());
+            if (sortKey == SortKey.DEADLINE) {
+                LocalDate.parse(value);
+            }
+            if (sortKey == SortKey.STATUS && !value.equals("true") && !value.equals("false")) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new ProjectCursor(sortKey, value, id);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.ndungutse.project_tracker.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.ndungutse.project_tracker.dto.ProjectDTO;
+import com.ndungutse.project_tracker.dto.ProjectDeletionJob;
+import com.ndungutse.project_tracker.exception.TooManyRequestsException;
+import com.ndungutse.project_tracker.repository.ProjectRepository;
+import com.ndungutse.project_tracker.repository.TaskRepository;
+import com.ndungutse.project_tracker.repository.TaskState;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongConsumer;
+import java.util.function.UnaryOperator;
+
+/**
+ * Deletes projects with set-based statements instead of the entity cascade,
+ * which loads every task and deletes them one by one. Tasks are removed in
+ * chunks, each in its own short transaction, so a large project never holds
+ * locks or accumulates WAL for the whole delete; the project row goes last
+ * together with any task added meanwhile. Large deletes can run as tracked
+ * jobs on a single background worker.
+ */
+@Service
+public class ProjectDeletionService {
+    private static final Logger logger = LoggerFactory.getLogger(ProjectDeletionService.class);
+    private static final long RETRY_AFTER_SECONDS = 60;
+
+    // What the audit log records for a deleted project
+    public record DeletedProject(ProjectDTO project, long deletedTasks) {
+    }
+
+    private final ProjectRepository projectRepository;
+    private final TaskRepository taskRepository;
+    private final AuditService auditService;
+    private final ProjectCache projectCache;
+    private final ProjectStatsService projectStatsService;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolExecutor executor;
+    private final Cache<String, ProjectDeletionJob> jobs;
+    private final int chunkSize;
+
+    public ProjectDeletionService(
+            ProjectRepository projectRepository,
+            TaskRepository taskRepository,
+            AuditService auditService,
+            ProjectCache projectCache,
+            ProjectStatsService projectStatsService,
+            PlatformTransactionManager transactionManager,
+            @Value("${spring.app.projectDeleteChunkSize:5000}") int chunkSize,
+            @Value("${spring.app.projectDeleteQueueCapacity:16}") int queueCapacity,
+            @Value("${spring.app.projectDeleteJobRetentionMinutes:1440}") long jobRetentionMinutes) {
+        this.projectRepository = projectRepository;
+        this.taskRepository = taskRepository;
+        this.auditService = auditService;
+        this.projectCache = projectCache;
+        this.projectStatsService = projectStatsService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+
+        // One worker, so background deletes never compete with each other for locks and I/O
+        this.executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "project-delete");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        // Finished jobs stay readable for a while; running ones are rewritten after every chunk
+        this.jobs = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMinutes(jobRetentionMinutes))
+                .build();
+    }
+
+    /**
+     * Delete a project and its tasks now, in the calling thread
+     *
+     * @param id The project ID
+     * @return The number of tasks deleted, or empty if the project does not exist
+     */
+    public Optional<Long> delete(Long id) {
+        return delete(id, deletedTasks -> {
+        });
+    }
+
+    /**
+     * Queue the deletion of a project on the background worker. A project
+     * that already has a queued or running deletion gets that job back.
+     *
+     * @param id The project ID
+     * @return The queued job
+     * @throws TooManyRequestsException if the queue is full
+     */
+    public synchronized ProjectDeletionJob start(Long id) {
+        Optional<ProjectDeletionJob> pending = jobs.asMap().values().stream()
+                .filter(job -> job.projectId().equals(id) && !job.isFinished())
+                .findFirst();
+        if (pending.isPresent()) {
+            return pending.get();
+        }
+
+        ProjectDeletionJob job = ProjectDeletionJob.queued(UUID.randomUUID().toString(), id);
+        jobs.put(job.id(), job);
+        try {
+            executor.execute(() -> run(job.id(), id));
+        } catch (RejectedExecutionException e) {
+            jobs.invalidate(job.id());
+            throw new TooManyRequestsException("Too many project deletions queued, please retry later",
+                    RETRY_AFTER_SECONDS);
+        }
+        return job;
+    }
+
+    public Optional<ProjectDeletionJob> getJob(String jobId) {
+        return Optional.ofNullable(jobs.getIfPresent(jobId));
+    }
+
+    private void run(String jobId, Long projectId) {
+        update(jobId, job -> job.running(0));
+        try {
+            long deletedTasks = delete(projectId, deleted -> update(jobId, job -> job.running(deleted))).orElse(0L);
+            update(jobId, job -> job.completed(deletedTasks));
+        } catch (RuntimeException e) {
+            logger.error("Deleting project {} failed", projectId, e);
+            update(jobId, job -> job.failed(e.getMessage()));
+        }
+    }
+
+    private void update(String jobId, UnaryOperator<ProjectDeletionJob> change) {
+        jobs.asMap().computeIfPresent(jobId, (id, job) -> change.apply(job));
+    }
+
+    // Each chunk subtracts the tasks it removed from the project counters in its own
+    // transaction, so a delete that stops halfway leaves them matching the tasks left;
+    // the counters go with the project row by ON DELETE CASCADE
+    private Optional<Long> delete(Long id, LongConsumer progress) {
+        // Read for the audit record only; Project.tasks is lazy and stays unloaded
+        Optional<ProjectDTO> project = projectRepository.findById(id).map(ProjectDTO::fromEntity);
+        if (project.isEmpty()) {
+            return Optional.empty();
+        }
+
+        long deletedTasks = 0;
+        int deleted;
+        do {
+            deleted = transactionTemplate.execute(status -> {
+                List<TaskState> removed = taskRepository.deleteChunkByProjectId(id, chunkSize);
+                projectStatsService.apply(removed, List.of());
+                return removed.size();
+            });
+            deletedTasks += deleted;
+            progress.accept(deletedTasks);
+        } while (deleted == chunkSize);
+
+        // Locking the project first stops new tasks from being added to it before it is gone
+        Integer remaining = transactionTemplate.execute(status -> {
+            if (projectRepository.lockById(id).isEmpty()) {
+                return null;
+            }
+            int stragglers = taskRepository.deleteAllByProjectId(id);
+            projectRepository.deleteRowById(id);
+            return stragglers;
+        });
+        projectCache.evict(id);
+        if (remaining == null) {
+            // Deleted concurrently by someone else, who also logged it
+            return Optional.empty();
+        }
+        deletedTasks += remaining;
+
+        auditService.logDeleteAction("Project", id, "dummy_user", new DeletedProject(project.get(), deletedTasks));
+        logger.info("Deleted project {} with {} tasks", id, deletedTasks);
+        return Optional.of(deletedTasks);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -1,29 +1,54 @@
 package com.ndungutse.project_tracker.service;
 
+import com.ndungutse.project_tracker.dto.CursorPage;
 import com.ndungutse.project_tracker.dto.ProjectDTO;
+import com.ndungutse.project_tracker.dto.ProjectSummaryDTO;
+import com.ndungutse.project_tracker.dto.TaskRollup;
 import com.ndungutse.project_tracker.model.Project;
 import com.ndungutse.project_tracker.repository.ProjectRepository;
+import com.ndungutse.project_tracker.repository.ProjectSpecifications;
 import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 public class ProjectService {
     private final ProjectRepository projectRepository;
+    private final ProjectStatsService projectStatsService;
     private final AuditService auditService;
+    private final ProjectDeletionService projectDeletionService;
+    private final ProjectCache projectCache;
+
+    // Largest slice a keyset listing returns, whatever size is requested
+    @Value("${spring.app.projectPageMaxSize:100}")
+    private int maxPageSize = 100;
 
     public ProjectService(
             ProjectRepository projectRepository,
-            AuditService auditService
+            ProjectStatsService projectStatsService,
+            AuditService auditService,
+            ProjectDeletionService projectDeletionService,
+            ProjectCache projectCache
     ) {
         this.projectRepository = projectRepository;
+        this.projectStatsService = projectStatsService;
         this.auditService = auditService;
+        this.projectDeletionService = projectDeletionService;
+        this.projectCache = projectCache;
     }
 
     // Create
@@ -31,6 +56,8 @@ public class ProjectService {
         Project project = projectDTO.toEntity();
         Project savedProject = projectRepository.save(project);
         ProjectDTO savedProjectDTO = ProjectDTO.fromEntity(savedProject);
+        // The ID may have been looked up and cached as missing before
+        projectCache.evict(savedProject.getId());
 
         // Log the create action
         auditService.logCreateAction("Project", savedProject.getId(), "dummy_user", savedProjectDTO);
@@ -56,9 +83,103 @@ public class ProjectService {
         return projectPage.map(ProjectDTO::fromEntity);
     }
 
+    // Read a page of projects with their task counts; the counts of the whole
+    // page come from one aggregate query, however many projects it holds
+    public Page<ProjectSummaryDTO> getAllWithTaskSummary(
+            int page,
+            int size
+    ) {
+        Page<Project> projectPage = projectRepository.findAll(PageRequest.of(page, size));
+        return new PageImpl<>(withTaskSummary(projectPage.getContent()), projectPage.getPageable(),
+                projectPage.getTotalElements());
+    }
+
+    /**
+     * Read one slice of projects, seeking past the cursor instead of skipping
+     * rows with an offset. No count query runs: one extra row tells whether
+     * another slice follows.
+     *
+     * @param cursor        The previous slice's nextCursor, or null for the first slice
+     * @param size          Number of projects to return, capped at the configured maximum
+     * @param sort          id (default), deadline, status or name
+     * @param estimateTotal Whether to add the planner's estimate of the total number of projects
+     * @throws IllegalArgumentException if the sort is unknown or the cursor is invalid or was issued for another sort
+     */
+    public CursorPage<ProjectDTO> getSlice(String cursor, int size, String sort, boolean estimateTotal) {
+        return findSlice(cursor, size, sort, estimateTotal,
+                projects -> projects.stream().map(ProjectDTO::fromEntity).toList());
+    }
+
+    // A slice of projects with their task counts, from one aggregate query per slice
+    public CursorPage<ProjectSummaryDTO> getSliceWithTaskSummary(String cursor, int size, String sort, boolean estimateTotal) {
+        return findSlice(cursor, size, sort, estimateTotal, this::withTaskSummary);
+    }
+
+    private <T> CursorPage<T> findSlice(String cursor, int size, String sort, boolean estimateTotal,
+            Function<List<Project>, List<T>> toDTOs) {
+        ProjectCursor.SortKey sortKey = ProjectCursor.SortKey.from(sort);
+        int sliceSize = Math.max(1, Math.min(size, maxPageSize));
+        int limit = sliceSize + 1;
+
+        ProjectCursor after = null;
+        if (cursor != null && !cursor.isBlank()) {
+            after = ProjectCursor.decode(cursor);
+            if (after.sortKey() != sortKey) {
+                throw new IllegalArgumentException("Cursor was issued for a different sort");
+            }
+        }
+
+        List<Project> rows = new ArrayList<>(findOrdered(
+                after == null ? ProjectSpecifications.any() : after.toSpecification(), sortKey, limit));
+        // Past the last row with a value, the slice continues into the rows without one
+        Specification<Project> remainder = after == null ? null : after.remainderSpecification();
+        if (remainder != null && rows.size() < limit) {
+            rows.addAll(findOrdered(remainder, sortKey, limit - rows.size()));
+        }
+
+        boolean hasNext = rows.size() > sliceSize;
+        List<Project> slice = hasNext ? rows.subList(0, sliceSize) : rows;
+        String nextCursor = hasNext ? ProjectCursor.after(sortKey, slice.get(slice.size() - 1)).encode() : null;
+
+        CursorPage<T> page = new CursorPage<>(toDTOs.apply(slice), sliceSize, nextCursor);
+        if (estimateTotal) {
+            page.setEstimatedTotal(estimateCount());
+        }
+        return page;
+    }
+
+    private List<Project> findOrdered(Specification<Project> spec, ProjectCursor.SortKey sortKey, int limit) {
+        return projectRepository.findBy(spec, query -> query.sortBy(sortKey.sort()).limit(limit).all());
+    }
+
+    // The planner's row estimate; a table that was never analyzed has none, and is then counted
+    private long estimateCount() {
+        long estimate = projectRepository.estimateCount();
+        return estimate >= 0 ? estimate : projectRepository.count();
+    }
+
+    // Counts come from the project counters rather than an aggregate over the tasks
+    private List<ProjectSummaryDTO> withTaskSummary(List<Project> projects) {
+        Map<Long, TaskRollup> rollups = projectStatsService.getRollups(projects.stream().map(Project::getId).toList());
+
+        return projects.stream()
+                .map(project -> new ProjectSummaryDTO(project,
+                        rollups.getOrDefault(project.getId(), TaskRollup.none(project.getId()))))
+                .toList();
+    }
+
+    // Served from the project cache; only misses read the database
     public Optional<ProjectDTO> getById(Long id) {
-        Optional<Project> projectOpt = projectRepository.findById(id);
-        return projectOpt.map(ProjectDTO::fromEntity);
+        return projectCache.get(id, key -> projectRepository.findById(key).map(ProjectDTO::fromEntity));
+    }
+
+    // Projects with the given IDs keyed by ID; cache misses are read in one query and missing IDs are left out
+    public Map<Long, ProjectDTO> getByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        return projectCache.getAll(ids, missing -> projectRepository.findAllById(missing).stream()
+                .collect(Collectors.toMap(Project::getId, ProjectDTO::fromEntity)));
     }
 
     @Transactional
@@ -87,6 +208,7 @@ public class ProjectService {
             project.setStatus(updatedProjectDTO.isStatus());
 
             ProjectDTO updatedDTO = ProjectDTO.fromEntity(project);
+            projectCache.evict(id);
 
             // Log the update action
             auditService.logUpdateAction("Project", id, "dummy_user", updatedDTO);
@@ -96,22 +218,22 @@ public class ProjectService {
         return null;
     }
 
-    // Delete
+    // Delete the project and its tasks with set-based statements; logs one audit record
     public void delete(Long id) {
-        // Get the project before deleting it to log its data
-        Optional<Project> projectOpt = projectRepository.findById(id);
-        if (projectOpt.isPresent()) {
-            ProjectDTO projectDTO = ProjectDTO.fromEntity(projectOpt.get());
-            projectRepository.deleteById(id);
-
-            // Log the delete action
-            auditService.logDeleteAction("Project", id, "dummy_user", projectDTO);
-        } else {
-            projectRepository.deleteById(id);
-        }
+        projectDeletionService.delete(id);
     }
 
     public boolean exists(Long id) {
-        return !projectRepository.existsById(id);
+        return getById(id).isPresent();
+    }
+
+    // Subset of the given project IDs that exist
+    public Set<Long> findExistingIds(Collection<Long> ids) {
+        return getByIds(ids).keySet();
+    }
+
+    // Managed reference to a project known to exist, without loading it
+    public Project getReference(Long id) {
+        return projectRepository.getReferenceById(id);
     }
 }
@@ -0,0 +1,193 @@
+package com.ndungutse.project_tracker.service;
+
+import com.ndungutse.project_tracker.dto.ProjectStatsDTO;
+import com.ndungutse.project_tracker.dto.TaskRollup;
+import com.ndungutse.project_tracker.repository.ProjectStatsRepository;
+import com.ndungutse.project_tracker.repository.TaskState;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the per-project task counters current. Task writes report the state
+ * of each task before and after the change, and the counters receive the
+ * difference in the same transaction, so reads cost a primary key lookup
+ * instead of a count over the project's tasks. Overdue tasks are not
+ * counted here, since a task becomes overdue without any write; reads count
+ * them over the open-task index instead. A scheduled reconciliation recounts
+ * every project to repair drift.
+ */
+@Service
+public class ProjectStatsService {
+    private static final Logger logger = LoggerFactory.getLogger(ProjectStatsService.class);
+
+    private final ProjectStatsRepository projectStatsRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter driftCounter;
+    private final int reconcileChunkSize;
+
+    public ProjectStatsService(
+            ProjectStatsRepository projectStatsRepository,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${spring.app.projectStatsReconcileChunkSize:500}") int reconcileChunkSize) {
+        this.projectStatsRepository = projectStatsRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.driftCounter = Counter.builder("project.stats.drift")
+                .description("Project counter rows found wrong by reconciliation")
+                .register(meterRegistry);
+        this.reconcileChunkSize = reconcileChunkSize;
+    }
+
+    public void taskCreated(TaskState state) {
+        apply(List.of(), List.of(state));
+    }
+
+    public void tasksCreated(Collection<TaskState> states) {
+        apply(List.of(), states);
+    }
+
+    public void taskUpdated(TaskState before, TaskState after) {
+        apply(List.of(before), List.of(after));
+    }
+
+    public void taskDeleted(TaskState state) {
+        apply(List.of(state), List.of());
+    }
+
+    /**
+     * Subtract the removed task states and add the added ones, with one
+     * upsert per affected project and assignee. Must run in the transaction
+     * that writes the tasks.
+     *
+     * @param removed States that no longer exist: deleted tasks, or tasks before an update
+     * @param added   States that now exist: created tasks, or tasks after an update
+     */
+    public void apply(Collection<TaskState> removed, Collection<TaskState> added) {
+        // Sorted maps give every writer the same lock order
+        Map<Long, long[]> projects = new TreeMap<>();
+        Map<AssigneeKey, Long> assignees = new TreeMap<>(AssigneeKey.ORDER);
+
+        for (TaskState state : removed) {
+            accumulate(state, -1, projects, assignees);
+        }
+        for (TaskState state : added) {
+            accumulate(state, 1, projects, assignees);
+        }
+
+        List<ProjectStatsRepository.AssigneeDelta> assigneeDeltas = new ArrayList<>();
+        Set<Long> assigneeProjects = new HashSet<>();
+        assignees.forEach((key, open) -> {
+            if (open != 0) {
+                assigneeDeltas.add(new ProjectStatsRepository.AssigneeDelta(key.projectId(), key.userId(), open));
+                assigneeProjects.add(key.projectId());
+            }
+        });
+
+        // A project whose counts cancel out is still written when one of its
+        // assignee counts changes, so the project row is always locked first
+        List<ProjectStatsRepository.ProjectDelta> projectDeltas = new ArrayList<>();
+        projects.forEach((projectId, counts) -> {
+            if (counts[0] != 0 || counts[1] != 0 || assigneeProjects.contains(projectId)) {
+                projectDeltas.add(new ProjectStatsRepository.ProjectDelta(projectId, counts[0], counts[1]));
+            }
+        });
+
+        if (!projectDeltas.isEmpty()) {
+            projectStatsRepository.applyDeltas(projectDeltas, assigneeDeltas);
+        }
+    }
+
+    private record AssigneeKey(long projectId, long userId) {
+        static final Comparator<AssigneeKey> ORDER = Comparator.comparingLong(AssigneeKey::projectId)
+                .thenComparingLong(AssigneeKey::userId);
+    }
+
+    // Adds one task state to the totals, total/completed per project and open per assignee
+    private static void accumulate(TaskState state, int sign,
+            Map<Long, long[]> projects, Map<AssigneeKey, Long> assignees) {
+        if (state.projectId() == null) {
+            return;
+        }
+        long[] counts = projects.computeIfAbsent(state.projectId(), id -> new long[2]);
+        counts[0] += sign;
+        if (state.completed()) {
+            counts[1] += sign;
+        }
+        if (!state.completed() && state.assignedUserId() != null) {
+            assignees.merge(new AssigneeKey(state.projectId(), state.assignedUserId()), (long) sign, Long::sum);
+        }
+    }
+
+    /**
+     * Read the counters of a project, with its tasks overdue as of today
+     *
+     * @param projectId The project
+     * @return The counters, or empty if the project does not exist
+     */
+    public Optional<ProjectStatsDTO> getStats(Long projectId) {
+        return projectStatsRepository.findCounts(projectId, LocalDate.now()).map(counts -> {
+            long open = counts.totalTasks() - counts.completedTasks();
+            double completion = counts.totalTasks() == 0 ? 0 : 100.0 * counts.completedTasks() / counts.totalTasks();
+            return new ProjectStatsDTO(projectId, counts.totalTasks(), counts.completedTasks(), open,
+                    counts.overdueTasks(), completion, projectStatsRepository.findOpenTasksByAssignee(projectId));
+        });
+    }
+
+    /**
+     * Read the task rollups of several projects from the counters
+     *
+     * @param projectIds The projects
+     * @return The rollup of each project, keyed by project ID
+     */
+    public Map<Long, TaskRollup> getRollups(Collection<Long> projectIds) {
+        if (projectIds.isEmpty()) {
+            return Map.of();
+        }
+        return projectStatsRepository.findRollups(projectIds, LocalDate.now()).stream()
+                .collect(Collectors.toMap(TaskRollup::projectId, Function.identity()));
+    }
+
+    /**
+     * Recount the counters of every project, one chunk of projects per
+     * transaction so row locks are held briefly
+     *
+     * @return How many counter rows were wrong
+     */
+    @Scheduled(cron = "${spring.app.projectStatsReconcileCron:0 5 0 * * *}")
+    public int reconcile() {
+        int drifted = 0;
+        long afterId = 0;
+        List<Long> projectIds;
+        while (!(projectIds = projectStatsRepository.findProjectIdsAfter(afterId, reconcileChunkSize)).isEmpty()) {
+            List<Long> chunk = projectIds;
+            drifted += transactionTemplate.execute(status -> projectStatsRepository.reconcile(chunk));
+            afterId = chunk.get(chunk.size() - 1);
+        }
+
+        driftCounter.increment(drifted);
+        if (drifted > 0) {
+            logger.warn("Project stats reconciliation repaired {} counter rows", drifted);
+        }
+        return drifted;
+    }
+}
@@ -0,0 +1,157 @@
+package com.ndungutse.project_tracker.service;
+
+import com.ndungutse.project_tracker.model.RefreshToken;
+import com.ndungutse.project_tracker.model.User;
+import com.ndungutse.project_tracker.repository.RefreshTokenRepository;
+import com.ndungutse.project_tracker.security.TokenRevocationService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Issues and rotates opaque refresh tokens. Tokens are random, so a plain
+ * SHA-256 digest is enough to store them safely and renewing a session never
+ * runs the password hash. Each refresh replaces the presented token; if an
+ * already rotated token is presented again, the whole family is revoked
+ * together with the access tokens issued under its session ID.
+ */
+@Service
+public class RefreshTokenService {
+    private static final int TOKEN_BYTES = 32;
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final TokenRevocationService tokenRevocationService;
+    private final long refreshExpirationMs;
+    private final long jwtExpirationMs;
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository,
+            TokenRevocationService tokenRevocationService,
+            @Value("${spring.app.jwtRefreshExpirationMs:1209600000}") long refreshExpirationMs,
+            @Value("${spring.app.jwtExpirationMs}") long jwtExpirationMs) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.tokenRevocationService = tokenRevocationService;
+        this.refreshExpirationMs = refreshExpirationMs;
+        this.jwtExpirationMs = jwtExpirationMs;
+    }
+
+    /**
+     * A newly issued refresh token
+     *
+     * @param token    The new raw refresh token to hand to the client
+     * @param user     The user the token belongs to
+     * @param familyId The family shared by every token from the same login
+     */
+    public record IssuedToken(String token, User user, String familyId) {
+    }
+
+    /**
+     * Start a new token family for a user who just logged in or registered
+     *
+     * @param user The authenticated user
+     * @return The raw refresh token and its new family
+     */
+    @Transactional
+    public IssuedToken issue(User user) {
+        String familyId = UUID.randomUUID().toString();
+        return new IssuedToken(create(user, familyId, Instant.now()), user, familyId);
+    }
+
+    /**
+     * Exchange a refresh token for a new one in the same family
+     *
+     * @param rawToken The refresh token presented by the client
+     * @return The new token and its user
+     * @throws BadCredentialsException if the token is unknown, expired or was already used
+     */
+    @Transactional(noRollbackFor = BadCredentialsException.class)
+    public IssuedToken rotate(String rawToken) {
+        Instant now = Instant.now();
+        RefreshToken current = refreshTokenRepository.findByTokenHash(hash(rawToken))
+                .orElseThrow(() -> new BadCredentialsException("Invalid refresh token"));
+
+        // A rotated token came back, so a copy is in someone else's hands: end the whole session,
+        // including access tokens already issued to whoever holds the copy
+        if (current.isRevoked() || (!current.isExpired(now)
+                && refreshTokenRepository.revokeIfActive(current.getId(), now) == 0)) {
+            refreshTokenRepository.revokeFamily(current.getFamilyId(), now);
+            tokenRevocationService.revoke(current.getFamilyId(), now.plusMillis(jwtExpirationMs));
+            throw new BadCredentialsException("Refresh token has already been used");
+        }
+        if (current.isExpired(now)) {
+            throw new BadCredentialsException("Refresh token has expired");
+        }
+
+        String token = create(current.getUser(), current.getFamilyId(), now);
+        return new IssuedToken(token, current.getUser(), current.getFamilyId());
+    }
+
+    /**
+     * Revoke every refresh token of a user, for example after a password change
+     *
+     * @param userId The user whose sessions should end
+     */
+    @Transactional
+    public void revokeAllForUser(Long userId) {
+        refreshTokenRepository.revokeAllForUser(userId, Instant.now());
+    }
+
+    /**
+     * Revoke every refresh token of one session
+     *
+     * @param familyId The family shared by the session's tokens
+     */
+    @Transactional
+    public void revokeFamily(String familyId) {
+        refreshTokenRepository.revokeFamily(familyId, Instant.now());
+    }
+
+    /**
+     * Find the sessions of a user that issued a token since the given time.
+     * Access tokens outlive their refresh token's rotation, so these are the
+     * sessions that may still hold a valid access token.
+     *
+     * @param userId The user
+     * @param since  The earliest issue time of interest
+     * @return The family IDs of those sessions
+     */
+    public List<String> findFamiliesIssuedSince(Long userId, Instant since) {
+        return refreshTokenRepository.findFamilyIdsIssuedSince(userId, since);
+    }
+
+    private String create(User user, String familyId, Instant now) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        secureRandom.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        refreshTokenRepository.save(RefreshToken.builder()
+                .tokenHash(hash(token))
+                .familyId(familyId)
+                .user(user)
+                .createdAt(now)
+                .expiresAt(now.plusMillis(refreshExpirationMs))
+                .build());
+        return token;
+    }
+
+    // Hex SHA-256, matching the 64 character token_hash column
+    static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.ndungutse.project_tracker.service;
+
+import com.ndungutse.project_tracker.model.Role;
+import com.ndungutse.project_tracker.repository.RoleRepository;
+import com.ndungutse.project_tracker.security.RoleAuthorities;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory copy of the roles table. Roles almost never change, so lookups
+ * are answered from an immutable snapshot that is replaced as a whole when
+ * RoleService changes a role. The Role instances handed out are detached,
+ * shared between threads and must be treated as read-only; they are only
+ * meant to be assigned to users, which stores the foreign key. A lookup
+ * miss reloads at most once per interval, so repeated lookups of a role that
+ * does not exist are answered from the snapshot instead of the database.
+ */
+@Component
+public class RoleRegistry {
+    private static final Logger logger = LoggerFactory.getLogger(RoleRegistry.class);
+
+    private final RoleRepository roleRepository;
+    private final long missReloadIntervalNanos;
+    private volatile Snapshot snapshot;
+
+    public RoleRegistry(RoleRepository roleRepository,
+            @Value("${spring.app.roleRegistryMissReloadIntervalMs:30000}") long missReloadIntervalMs) {
+        this.roleRepository = roleRepository;
+        this.missReloadIntervalNanos = Duration.ofMillis(missReloadIntervalMs).toNanos();
+    }
+
+    private record Snapshot(Map<Long, Role> byId, Map<String, Role> byName, long loadedAt) {
+        static Snapshot of(Collection<Role> roles) {
+            List<Role> copies = roles.stream()
+                    .map(role -> Role.builder()
+                            .id(role.getId())
+                            .roleName(role.getRoleName())
+                            .users(List.of())
+                            .build())
+                    .toList();
+            return new Snapshot(
+                    copies.stream().collect(Collectors.toUnmodifiableMap(Role::getId, Function.identity())),
+                    copies.stream().collect(Collectors.toUnmodifiableMap(Role::getRoleName, Function.identity())),
+                    System.nanoTime());
+        }
+    }
+
+    /**
+     * Find a role by ID. A miss may reload the snapshot, in case the role was
+     * added outside this application.
+     *
+     * @param id The role ID
+     * @return The shared role, or empty if no such role exists
+     */
+    public Optional<Role> findById(Long id) {
+        Snapshot seen = current();
+        Role role = seen.byId().get(id);
+        if (role == null) {
+            role = reloadAfterMiss(seen).byId().get(id);
+        }
+        return Optional.ofNullable(role);
+    }
+
+    /**
+     * Find a role by name. A miss may reload the snapshot, in case the role
+     * was added outside this application.
+     *
+     * @param roleName The role name, e.g. CONTRACTOR
+     * @return The shared role, or empty if no such role exists
+     */
+    public Optional<Role> findByName(String roleName) {
+        Snapshot seen = current();
+        Role role = seen.byName().get(roleName);
+        if (role == null) {
+            role = reloadAfterMiss(seen).byName().get(roleName);
+        }
+        return Optional.ofNullable(role);
+    }
+
+    public List<Role> findAll() {
+        return List.copyOf(current().byId().values());
+    }
+
+    /**
+     * Reload the snapshot once the current transaction commits, or right away
+     * when there is none, so readers never see an uncommitted role.
+     */
+    public void refreshAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    reload();
+                }
+            });
+        } else {
+            reload();
+        }
+    }
+
+    // Load eagerly so the first request does not pay for it
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        reload();
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        return current != null ? current : reload();
+    }
+
+    // Misses that queued up behind one reload share its result, and a snapshot
+    // younger than the interval is trusted, so a miss there is a real absence
+    private synchronized Snapshot reloadAfterMiss(Snapshot seen) {
+        Snapshot current = snapshot;
+        if (current != seen || System.nanoTime() - current.loadedAt() < missReloadIntervalNanos) {
+            return current;
+        }
+        return reload();
+    }
+
+    private synchronized Snapshot reload() {
+        Snapshot reloaded = Snapshot.of(roleRepository.findAll());
+        reloaded.byName().keySet().forEach(RoleAuthorities::forRole);
+        snapshot = reloaded;
+        logger.debug("Loaded {} roles", reloaded.byId().size());
+        return reloaded;
+    }
+}
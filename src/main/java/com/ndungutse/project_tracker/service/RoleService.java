@@ -3,9 +3,11 @@ package com.ndungutse.project_tracker.service;
 import com.ndungutse.project_tracker.dto.RoleDTO;
 import com.ndungutse.project_tracker.model.Role;
 import com.ndungutse.project_tracker.repository.RoleRepository;
+import com.ndungutse.project_tracker.security.CustomUserDetailsService;
 import jakarta.transaction.Transactional;
 import org.springframework.stereotype.Service;
 
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -13,33 +15,42 @@ import java.util.stream.Collectors;
 @Service
 public class RoleService {
     private final RoleRepository roleRepository;
+    private final CustomUserDetailsService userDetailsService;
+    private final RoleRegistry roleRegistry;
+    private final UserService userService;
 
-    public RoleService(RoleRepository roleRepository) {
+    public RoleService(RoleRepository roleRepository, CustomUserDetailsService userDetailsService,
+            RoleRegistry roleRegistry, UserService userService) {
         this.roleRepository = roleRepository;
+        this.userDetailsService = userDetailsService;
+        this.roleRegistry = roleRegistry;
+        this.userService = userService;
     }
 
     // Create
     public RoleDTO create(RoleDTO roleDTO) {
         Role role = roleDTO.toEntity();
         Role savedRole = roleRepository.save(role);
+        roleRegistry.refreshAfterCommit();
         return RoleDTO.fromEntity(savedRole);
     }
 
     // Read
     public List<RoleDTO> getAll() {
-        List<Role> roles = roleRepository.findAll();
+        List<Role> roles = roleRegistry.findAll();
         return roles.stream()
+                .sorted(Comparator.comparing(Role::getId))
                 .map(RoleDTO::fromEntity)
                 .collect(Collectors.toList());
     }
 
     public Optional<RoleDTO> getById(Long id) {
-        Optional<Role> role = roleRepository.findById(id);
+        Optional<Role> role = roleRegistry.findById(id);
         return role.map(RoleDTO::fromEntity);
     }
 
     public Optional<RoleDTO> getByName(String roleName) {
-        Optional<Role> role = roleRepository.findByRoleName(roleName);
+        Optional<Role> role = roleRegistry.findByName(roleName);
         return role.map(RoleDTO::fromEntity);
     }
 
@@ -50,11 +61,21 @@ public class RoleService {
         if (existingRole.isPresent()) {
             Role role = existingRole.get();
 
-            if (updatedRoleDTO.getRoleName() != null) {
+            boolean renamed = updatedRoleDTO.getRoleName() != null
+                    && !updatedRoleDTO.getRoleName().equals(role.getRoleName());
+            if (renamed) {
                 role.setRoleName(updatedRoleDTO.getRoleName());
             }
 
             Role savedRole = roleRepository.save(role);
+            // Tokens name the role, so its holders must log in again to get the new name
+            if (renamed) {
+                userService.roleRenamed(id);
+            }
+
+            // Cached users embed their role, so a renamed role invalidates all of them
+            userDetailsService.evictAll();
+            roleRegistry.refreshAfterCommit();
             return Optional.of(RoleDTO.fromEntity(savedRole));
         }
         return Optional.empty();
@@ -63,13 +84,15 @@ public class RoleService {
     // Delete
     public void delete(Long id) {
         roleRepository.deleteById(id);
+        userDetailsService.evictAll();
+        roleRegistry.refreshAfterCommit();
     }
 
     public boolean exists(Long id) {
-        return roleRepository.existsById(id);
+        return roleRegistry.findById(id).isPresent();
     }
 
     public boolean existsByName(String roleName) {
-        return roleRepository.existsByRoleName(roleName);
+        return roleRegistry.findByName(roleName).isPresent();
     }
 }
\ No newline at end of file
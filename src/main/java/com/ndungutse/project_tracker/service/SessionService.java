@@ -0,0 +1,70 @@
+package com.ndungutse.project_tracker.service;
+
+import com.ndungutse.project_tracker.security.JwtUtils;
+import com.ndungutse.project_tracker.security.TokenRevocationService;
+import io.jsonwebtoken.Claims;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+/**
+ * Ends sessions before their tokens expire. A session is one login: its
+ * refresh token family is revoked so it cannot be renewed, and its sid is
+ * added to the revocation list so access tokens already issued stop working.
+ */
+@Service
+public class SessionService {
+    private final JwtUtils jwtUtils;
+    private final RefreshTokenService refreshTokenService;
+    private final TokenRevocationService tokenRevocationService;
+
+    public SessionService(JwtUtils jwtUtils, RefreshTokenService refreshTokenService,
+            TokenRevocationService tokenRevocationService) {
+        this.jwtUtils = jwtUtils;
+        this.refreshTokenService = refreshTokenService;
+        this.tokenRevocationService = tokenRevocationService;
+    }
+
+    /**
+     * End the session an access token belongs to
+     *
+     * @param accessToken The compact JWT presented by the client
+     * @throws BadCredentialsException if the token is invalid or expired
+     */
+    @Transactional
+    public void logout(String accessToken) {
+        Claims claims = jwtUtils.verifyJwtToken(accessToken)
+                .orElseThrow(() -> new BadCredentialsException("Invalid token"));
+
+        String sessionId = claims.get(JwtUtils.CLAIM_SESSION_ID, String.class);
+        if (sessionId != null) {
+            refreshTokenService.revokeFamily(sessionId);
+            tokenRevocationService.revoke(sessionId, latestAccessTokenExpiry());
+        } else {
+            // Tokens issued without a session can only be revoked one by one
+            tokenRevocationService.revoke(claims.getId(), claims.getExpiration().toInstant());
+        }
+    }
+
+    /**
+     * End every session of a user
+     *
+     * @param userId The user whose sessions should end
+     */
+    @Transactional
+    public void revokeAllForUser(Long userId) {
+        Instant expiry = latestAccessTokenExpiry();
+        Instant since = Instant.now().minusMillis(jwtUtils.getJwtExpirationMs());
+
+        refreshTokenService.findFamiliesIssuedSince(userId, since)
+                .forEach(sessionId -> tokenRevocationService.revoke(sessionId, expiry));
+        refreshTokenService.revokeAllForUser(userId);
+    }
+
+    // No access token issued before now can outlive this
+    private Instant latestAccessTokenExpiry() {
+        return Instant.now().plusMillis(jwtUtils.getJwtExpirationMs());
+    }
+}
@@ -0,0 +1,97 @@
+package com.ndungutse.project_tracker.service;
+
+import com.ndungutse.project_tracker.model.Task;
+import com.ndungutse.project_tracker.repository.TaskSpecifications;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position after the last task of a page. Clients only see it as an opaque
+ * string; it holds the sort key, that key's value and the id tie-breaker of
+ * the last row, so the next page seeks straight past it and rows inserted
+ * meanwhile never shift the pages already served.
+ *
+ * @param sortKey The ordering the cursor belongs to
+ * @param value   The sort key value of the last row, null for ID order or a missing due date
+ * @param id      The ID of the last row
+ */
+public record TaskCursor(SortKey sortKey, String value, Long id) {
+    private static final String VERSION = "v1";
+
+    public enum SortKey {
+        ID(Sort.by(Sort.Order.asc("id"))),
+        DUE_DATE(Sort.by(Sort.Order.asc("dueDate").nullsLast(), Sort.Order.asc("id")));
+
+        private final Sort sort;
+
+        SortKey(Sort sort) {
+            this.sort = sort;
+        }
+
+        public Sort sort() {
+            return sort;
+        }
+
+        public static SortKey from(String sort) {
+            if (sort == null || sort.isBlank() || sort.equalsIgnoreCase("id")) {
+                return ID;
+            }
+            if (sort.equalsIgnoreCase("dueDate")) {
+                return DUE_DATE;
+            }
+            throw new IllegalArgumentException("Unsupported sort: " + sort + " (use id or dueDate)");
+        }
+    }
+
+    public static TaskCursor after(SortKey sortKey, Task last) {
+        String value = sortKey == SortKey.DUE_DATE && last.getDueDate() != null
+                ? last.getDueDate().toString()
+                : null;
+        return new TaskCursor(sortKey, value, last.getId());
+    }
+
+    public Specification<Task> toSpecification() {
+        if (sortKey == SortKey.DUE_DATE) {
+            return TaskSpecifications.afterDueDate(value == null ? null : LocalDate.parse(value), id);
+        }
+        return TaskSpecifications.afterId(id);
+    }
+
+    /**
+     * The tasks without a due date, which a due date ordering reaches after
+     * every task the cursor's seek selects, or null when there are none past
+     * the cursor. They are read separately so each query stays on a single
+     * range of the index.
+     */
+    public Specification<Task> remainderSpecification() {
+        return sortKey == SortKey.DUE_DATE && value != null ? TaskSpecifications.hasNoDueDate() : null;
+    }
+
+    public String encode() {
+        String raw = String.join("|", VERSION, sortKey.name(), value == null ? "" : value, id.toString());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static TaskCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            if (parts.length != 4 || !VERSION.equals(parts[0])) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            SortKey sortKey = SortKey.valueOf(parts[1]);
+            String value = parts[2].isEmpty() ? null : parts[2];
+            if (value != null && sortKey == SortKey.DUE_DATE) {
+                LocalDate.parse(value);
+            }
+            return new TaskCursor(sortKey, value, Long.parseLong(parts[3]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
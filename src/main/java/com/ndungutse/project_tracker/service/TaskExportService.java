@@ -0,0 +1,84 @@
+package com.ndungutse.project_tracker.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.ndungutse.project_tracker.dto.TaskDTO;
+import com.ndungutse.project_tracker.model.Task;
+import com.ndungutse.project_tracker.repository.TaskRepository;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes every task as newline-delimited JSON while reading them through a
+ * database cursor, so memory use stays flat however many tasks there are.
+ */
+@Service
+public class TaskExportService {
+    private static final Logger logger = LoggerFactory.getLogger(TaskExportService.class);
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final TaskRepository taskRepository;
+    private final EntityManager entityManager;
+    private final ObjectWriter taskWriter;
+    private final TransactionTemplate transactionTemplate;
+
+    public TaskExportService(TaskRepository taskRepository, EntityManager entityManager, ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager) {
+        this.taskRepository = taskRepository;
+        this.entityManager = entityManager;
+        this.taskWriter = objectMapper.writerFor(TaskDTO.class);
+        // The export usually runs outside the request thread, so it opens its own read-only transaction
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Write all tasks to the stream, one JSON object per line, in id order.
+     * The stream is flushed but not closed.
+     *
+     * @param out Where to write the tasks
+     * @return The number of tasks written
+     * @throws IOException if writing fails
+     */
+    public long exportNdjson(OutputStream out) throws IOException {
+        BufferedOutputStream buffered = new BufferedOutputStream(out, BUFFER_SIZE);
+        Long written;
+        try {
+            written = transactionTemplate.execute(status -> writeAll(buffered));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        buffered.flush();
+        logger.info("Exported {} tasks", written);
+        return written != null ? written : 0;
+    }
+
+    private long writeAll(OutputStream out) {
+        long count = 0;
+        try (Stream<Task> tasks = taskRepository.streamAll()) {
+            Iterator<Task> iterator = tasks.iterator();
+            while (iterator.hasNext()) {
+                out.write(taskWriter.writeValueAsBytes(TaskDTO.fromEntity(iterator.next())));
+                out.write('\n');
+                // Drop rows already written so the persistence context stays one fetch deep
+                if (++count % TaskRepository.STREAM_FETCH_SIZE == 0) {
+                    entityManager.clear();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return count;
+    }
+}
@@ -1,17 +1,36 @@
 package com.ndungutse.project_tracker.service;
 
+import com.ndungutse.project_tracker.dto.CursorPage;
 import com.ndungutse.project_tracker.dto.ProjectDTO;
+import com.ndungutse.project_tracker.dto.SideLoaded;
+import com.ndungutse.project_tracker.dto.TaskBatchResult;
+import com.ndungutse.project_tracker.dto.TaskBulkUpdateRequest;
+import com.ndungutse.project_tracker.dto.TaskBulkUpdateResult;
 import com.ndungutse.project_tracker.dto.TaskDTO;
+import com.ndungutse.project_tracker.dto.TaskSearchCriteria;
+import com.ndungutse.project_tracker.dto.TaskView;
 import com.ndungutse.project_tracker.dto.UserDTO;
-import com.ndungutse.project_tracker.model.Project;
 import com.ndungutse.project_tracker.model.Task;
-import com.ndungutse.project_tracker.model.User;
 import com.ndungutse.project_tracker.repository.TaskRepository;
+import com.ndungutse.project_tracker.repository.TaskRepositoryCustom;
+import com.ndungutse.project_tracker.repository.TaskSpecifications;
+import com.ndungutse.project_tracker.repository.TaskState;
+import com.ndungutse.project_tracker.security.RoleAuthorities;
+import com.ndungutse.project_tracker.security.SecurityUtil;
+import com.ndungutse.project_tracker.security.UserPrincipal;
 import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.repository.query.FluentQuery;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -19,92 +38,229 @@ public class TaskService {
     private final TaskRepository taskRepository;
     private final ProjectService projectService;
     private final UserService userService;
+    private final SecurityUtil securityUtil;
+    private final AuditService auditService;
+    private final ProjectStatsService projectStatsService;
+
+    // Page sizes for cursor listings; a request can ask for fewer rows but never more than the maximum
+    @Value("${spring.app.taskPageDefaultSize:20}")
+    private int defaultPageSize = 20;
+
+    @Value("${spring.app.taskPageMaxSize:100}")
+    private int maxPageSize = 100;
+
+    @Value("${spring.app.taskBatchMaxSize:500}")
+    private int maxBatchSize = 500;
 
     public TaskService(
             TaskRepository taskRepository,
             ProjectService projectService,
-            UserService userService) {
+            UserService userService,
+            SecurityUtil securityUtil,
+            AuditService auditService,
+            ProjectStatsService projectStatsService) {
         this.taskRepository = taskRepository;
         this.projectService = projectService;
         this.userService = userService;
+        this.securityUtil = securityUtil;
+        this.auditService = auditService;
+        this.projectStatsService = projectStatsService;
     }
 
     // Create
     @Transactional
     public Optional<TaskDTO> create(TaskDTO taskDTO) {
-        // Validate that the project exists
-        if (taskDTO.getProjectId() == null || !projectService.exists(taskDTO.getProjectId())) {
+        Long projectId = taskDTO.getProjectId();
+        Long userId = taskDTO.getAssignedUserId();
+
+        // One existence query covers the project and the assignee
+        if (projectId == null || !referencesExist(projectId, userId)) {
             return Optional.empty();
         }
 
-        // Get the project entity
-        Optional<Project> project = projectService.getById(taskDTO.getProjectId())
-                .map(ProjectDTO::toEntity);
+        // Link managed references instead of loading and copying the related rows
+        Task task = taskDTO.toEntity(
+                projectService.getReference(projectId),
+                userId != null ? userService.getReference(userId) : null);
+        Task savedTask = taskRepository.save(task);
+        projectStatsService.taskCreated(TaskState.of(savedTask));
 
-        if (project.isEmpty()) {
-            return Optional.empty();
+        return Optional.of(TaskDTO.fromEntity(savedTask));
+    }
+
+    /**
+     * Create many tasks at once. Referenced projects and users are validated
+     * with one query each, and the valid tasks are inserted together so
+     * Hibernate can send them as JDBC batches. Invalid tasks are skipped and
+     * reported at their index.
+     *
+     * @param taskDTOs The tasks to create
+     * @return The per-task outcome
+     * @throws IllegalArgumentException if the batch is larger than allowed
+     */
+    @Transactional
+    public TaskBatchResult createBatch(List<TaskDTO> taskDTOs) {
+        if (taskDTOs.size() > maxBatchSize) {
+            throw new IllegalArgumentException("A batch can contain at most " + maxBatchSize + " tasks");
         }
 
-        // Get the assigned user entity if provided
-        User assignedUser = null;
-        if (taskDTO.getAssignedUserId() != null) {
-            assignedUser = userService.getUserById(taskDTO.getAssignedUserId())
-                    .map(UserDTO::toEntity)
-                    .orElse(null);
+        Set<Long> existingProjects = projectService.findExistingIds(referencedIds(taskDTOs, TaskDTO::getProjectId));
+        Set<Long> existingUsers = userService.findExistingIds(referencedIds(taskDTOs, TaskDTO::getAssignedUserId));
+
+        TaskBatchResult.Item[] items = new TaskBatchResult.Item[taskDTOs.size()];
+        List<Task> tasks = new ArrayList<>();
+        List<Integer> taskIndexes = new ArrayList<>();
+        for (int i = 0; i < taskDTOs.size(); i++) {
+            TaskDTO taskDTO = taskDTOs.get(i);
+            Long projectId = taskDTO.getProjectId();
+            Long userId = taskDTO.getAssignedUserId();
+
+            if (projectId == null) {
+                items[i] = TaskBatchResult.Item.failed(i, "projectId is required");
+            } else if (!existingProjects.contains(projectId)) {
+                items[i] = TaskBatchResult.Item.failed(i, "Project not found with id: " + projectId);
+            } else if (userId != null && !existingUsers.contains(userId)) {
+                items[i] = TaskBatchResult.Item.failed(i, "User not found with id: " + userId);
+            } else {
+                // References avoid loading each project and user just to link it
+                tasks.add(taskDTO.toEntity(
+                        projectService.getReference(projectId),
+                        userId != null ? userService.getReference(userId) : null));
+                taskIndexes.add(i);
+            }
         }
 
-        // Create and save the task
-        Task task = taskDTO.toEntity(project.get(), assignedUser);
-        Task savedTask = taskRepository.save(task);
+        List<Task> saved = taskRepository.saveAll(tasks);
+        projectStatsService.tasksCreated(saved.stream().map(TaskState::of).toList());
+        for (int i = 0; i < saved.size(); i++) {
+            int index = taskIndexes.get(i);
+            items[index] = TaskBatchResult.Item.created(index, saved.get(i).getId());
+        }
 
-        return Optional.of(TaskDTO.fromEntity(savedTask));
+        return new TaskBatchResult(List.of(items));
     }
 
-    // Read
-    public List<TaskDTO> getAll() {
-        List<Task> tasks = taskRepository.findAll();
-        return tasks.stream()
-                .map(TaskDTO::fromEntity)
-                .collect(Collectors.toList());
+    private static Set<Long> referencedIds(List<TaskDTO> taskDTOs, Function<TaskDTO, Long> idGetter) {
+        return taskDTOs.stream()
+                .map(idGetter)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
     }
 
+    // Read
     public Optional<TaskDTO> getById(Long id) {
         Optional<Task> taskOpt = taskRepository.findById(id);
         return taskOpt.map(TaskDTO::fromEntity);
     }
 
-    // Get tasks by assigned user
-    public List<TaskDTO> getTasksByUser(Long userId) {
-        // First verify that the user exists
+    // Read one task, joining only the associations the view embeds
+    public Optional<TaskDTO> getById(Long id, TaskView view) {
+        return fetch(TaskSpecifications.hasId(id), view, FluentQuery.FetchableFluentQuery::first).map(view::toDTO);
+    }
+
+    // Read one page at a time, seeking past the cursor instead of counting rows with an offset
+    public CursorPage<TaskDTO> getAll(String cursor, Integer size, String sort, TaskView view) {
+        return findPage(TaskSpecifications.any(), cursor, size, sort, view);
+    }
+
+    public CursorPage<TaskDTO> getTasksByUser(Long userId, String cursor, Integer size, String sort, TaskView view) {
         if (!userService.exists(userId)) {
-            return List.of();
+            return new CursorPage<>(List.of(), pageSize(size), null);
         }
+        return findPage(TaskSpecifications.assignedTo(userId), cursor, size, sort, view);
+    }
+
+    public CursorPage<TaskDTO> getTasksByProject(Long projectId, String cursor, Integer size, String sort, TaskView view) {
+        if (projectService.getById(projectId).isEmpty()) {
+            return new CursorPage<>(List.of(), pageSize(size), null);
+        }
+        return findPage(TaskSpecifications.inProject(projectId), cursor, size, sort, view);
+    }
+
+    public CursorPage<TaskDTO> getTasksByStatus(boolean status, String cursor, Integer size, String sort, TaskView view) {
+        return findPage(TaskSpecifications.hasStatus(status), cursor, size, sort, view);
+    }
+
+    /**
+     * Find tasks matching any combination of filters, as one query per page
+     *
+     * @param criteria The filters to apply; unset filters are ignored
+     * @param view     The associations to embed in each task
+     * @return One page of matching tasks
+     * @throws IllegalArgumentException if the due date range is reversed or the cursor is invalid
+     */
+    public CursorPage<TaskDTO> search(TaskSearchCriteria criteria, String cursor, Integer size, String sort, TaskView view) {
+        if (criteria.getDueFrom() != null && criteria.getDueTo() != null
+                && criteria.getDueFrom().isAfter(criteria.getDueTo())) {
+            throw new IllegalArgumentException("dueFrom must not be after dueTo");
+        }
+        return findPage(TaskSpecifications.matching(criteria), cursor, size, sort, view);
+    }
+
+    /**
+     * Load the projects and users a normalized view side-loads for these tasks,
+     * one query per type over the distinct referenced IDs
+     *
+     * @param tasks The tasks being returned
+     * @param view  The view naming which associations to include
+     * @return Each distinct referenced project and user, keyed by ID
+     */
+    public SideLoaded.Included sideLoad(List<TaskDTO> tasks, TaskView view) {
+        Map<Long, ProjectDTO> projects = view.includeProject()
+                ? projectService.getByIds(referencedIds(tasks, TaskDTO::getProjectId))
+                : null;
+        Map<Long, UserDTO> users = view.includeAssignee()
+                ? userService.getUsersByIds(referencedIds(tasks, TaskDTO::getAssignedUserId))
+                : null;
+        return new SideLoaded.Included(projects, users);
+    }
 
-        List<Task> tasks = taskRepository.findByAssignedUserId(userId);
-        return tasks.stream()
-                .map(TaskDTO::fromEntity)
-                .collect(Collectors.toList());
+    private <R> R fetch(Specification<Task> spec, TaskView view,
+            Function<FluentQuery.FetchableFluentQuery<Task>, R> query) {
+        String[] fetchPaths = view.fetchPaths();
+        return taskRepository.findBy(spec, q -> query.apply(fetchPaths.length == 0 ? q : q.project(fetchPaths)));
     }
 
-    // Get tasks by project
-    public List<TaskDTO> getTasksByProject(Long projectId) {
-        // First verify that the project exists
-        if (!projectService.exists(projectId)) {
-            return List.of();
+    private CursorPage<TaskDTO> findPage(Specification<Task> filter, String cursor, Integer size, String sort, TaskView view) {
+        TaskCursor.SortKey sortKey = TaskCursor.SortKey.from(sort);
+        int pageSize = pageSize(size);
+
+        int limit = pageSize + 1;
+
+        TaskCursor after = null;
+        if (cursor != null && !cursor.isBlank()) {
+            after = TaskCursor.decode(cursor);
+            if (after.sortKey() != sortKey) {
+                throw new IllegalArgumentException("Cursor was issued for a different sort");
+            }
+        }
+
+        // One extra row tells whether another page follows without a count query;
+        // only the associations the view embeds are joined into the same select
+        List<Task> rows = new ArrayList<>(findOrdered(
+                after == null ? filter : filter.and(after.toSpecification()), sortKey, limit, view));
+        // Past the last task with a due date, the page continues into the tasks without one
+        Specification<Task> remainder = after == null ? null : after.remainderSpecification();
+        if (remainder != null && rows.size() < limit) {
+            rows.addAll(findOrdered(filter.and(remainder), sortKey, limit - rows.size(), view));
         }
 
-        List<Task> tasks = taskRepository.findByProjectId(projectId);
-        return tasks.stream()
-                .map(TaskDTO::fromEntity)
-                .collect(Collectors.toList());
+        boolean hasNext = rows.size() > pageSize;
+        List<Task> page = hasNext ? rows.subList(0, pageSize) : rows;
+        String nextCursor = hasNext ? TaskCursor.after(sortKey, page.get(page.size() - 1)).encode() : null;
+
+        return new CursorPage<>(page.stream().map(view::toDTO).toList(), pageSize, nextCursor);
+    }
+
+    private List<Task> findOrdered(Specification<Task> spec, TaskCursor.SortKey sortKey, int limit, TaskView view) {
+        return fetch(spec, view, query -> query.sortBy(sortKey.sort()).limit(limit).all());
     }
 
-    // Get tasks by status
-    public List<TaskDTO> getTasksByStatus(boolean status) {
-        List<Task> tasks = taskRepository.findByStatus(status);
-        return tasks.stream()
-                .map(TaskDTO::fromEntity)
-                .collect(Collectors.toList());
+    private int pageSize(Integer size) {
+        if (size == null) {
+            return Math.min(defaultPageSize, maxPageSize);
+        }
+        return Math.max(1, Math.min(size, maxPageSize));
     }
 
     // Update
@@ -112,6 +268,9 @@ public class TaskService {
     public Optional<TaskDTO> update(
             Long id,
             TaskDTO updatedTaskDTO) {
+        // Roles that can never update tasks are rejected before anything is loaded
+        securityUtil.validateTaskUpdateRole();
+
         Optional<Task> existingTaskOpt = taskRepository.findById(id);
 
         if (existingTaskOpt.isEmpty()) {
@@ -120,6 +279,30 @@ public class TaskService {
 
         Task existingTask = existingTaskOpt.get();
 
+        // Ownership is checked against the task just loaded, so no second lookup is needed
+        securityUtil.validateTaskUpdateAccess(existingTask);
+        TaskState before = TaskState.of(existingTask);
+
+        // Only references that actually change are validated, with a single query
+        Long currentProjectId = existingTask.getProject() != null ? existingTask.getProject().getId() : null;
+        Long newProjectId = changed(updatedTaskDTO.getProjectId(), currentProjectId);
+        Long currentUserId = existingTask.getAssignedUser() != null
+                ? existingTask.getAssignedUser().getId()
+                : existingTask.getAssignedUserId();
+        Long newUserId = changed(updatedTaskDTO.getAssignedUserId(), currentUserId);
+        if ((newProjectId != null || newUserId != null) && !referencesExist(newProjectId, newUserId)) {
+            throw new IllegalArgumentException("Project or assigned user not found");
+        }
+
+        if (newProjectId != null) {
+            existingTask.setProject(projectService.getReference(newProjectId));
+        }
+
+        if (newUserId != null) {
+            existingTask.setAssignedUser(userService.getReference(newUserId));
+            existingTask.setAssignedUserId(newUserId);
+        }
+
         // Update fields that are not null
         if (updatedTaskDTO.getTitle() != null) {
             existingTask.setTitle(updatedTaskDTO.getTitle());
@@ -136,31 +319,75 @@ public class TaskService {
         // Status is a primitive boolean, so we always update it
         existingTask.setStatus(updatedTaskDTO.isStatus());
 
-        // Update project if provided and exists
-        if (updatedTaskDTO.getProjectId() != null &&
-                projectService.exists(updatedTaskDTO.getProjectId())) {
+        Task updatedTask = taskRepository.save(existingTask);
+        projectStatsService.taskUpdated(before, TaskState.of(updatedTask));
+        return Optional.of(TaskDTO.fromEntity(updatedTask));
+    }
 
-            Optional<Project> projectOpt = projectService.getById(updatedTaskDTO.getProjectId())
-                    .map(ProjectDTO::toEntity);
+    /**
+     * Apply a field patch to many tasks with one statement. Developers are
+     * restricted set-wise to their own tasks: tasks assigned to someone else
+     * are left untouched and are not counted, instead of failing the request.
+     *
+     * @param request The tasks to change and the fields to write
+     * @return How many tasks were requested and updated
+     * @throws IllegalArgumentException if no tasks or no changes are given, or the assignee does not exist
+     */
+    @Transactional
+    public TaskBulkUpdateResult bulkUpdate(TaskBulkUpdateRequest request) {
+        UserPrincipal currentUser = securityUtil.validateTaskUpdateRole();
 
-            projectOpt.ifPresent(existingTask::setProject);
+        boolean hasIds = request.getIds() != null && !request.getIds().isEmpty();
+        boolean hasFilter = request.getFilter() != null && !request.getFilter().isEmpty();
+        if (hasIds == hasFilter) {
+            throw new IllegalArgumentException("Select tasks with either ids or a filter");
         }
+        if (hasIds && request.getIds().size() > maxBatchSize) {
+            throw new IllegalArgumentException("A bulk update can contain at most " + maxBatchSize + " tasks");
+        }
+        if (!request.hasChanges()) {
+            throw new IllegalArgumentException("No fields to update");
+        }
+        if (request.getAssignedUserId() != null && !userService.exists(request.getAssignedUserId())) {
+            throw new IllegalArgumentException("User not found with id: " + request.getAssignedUserId());
+        }
+
+        Long restrictToAssignee = currentUser.hasAnyRole(RoleAuthorities.ADMIN | RoleAuthorities.MANAGER)
+                ? null
+                : currentUser.getUserId();
+        List<TaskRepositoryCustom.UpdatedTask> updated = taskRepository.bulkUpdate(request, restrictToAssignee);
+        projectStatsService.apply(
+                updated.stream().map(TaskRepositoryCustom.UpdatedTask::before).toList(),
+                updated.stream().map(TaskRepositoryCustom.UpdatedTask::after).toList());
 
-        // Update assigned user if provided and exists
-        if (updatedTaskDTO.getAssignedUserId() != null) {
-            Optional<User> userOpt = userService.getUserById(updatedTaskDTO.getAssignedUserId())
-                    .map(UserDTO::toEntity);
+        List<Long> updatedIds = updated.stream().map(TaskRepositoryCustom.UpdatedTask::id).toList();
+        auditService.logUpdateActions("Task", updatedIds, currentUser.getUsername(), request);
 
-            userOpt.ifPresent(existingTask::setAssignedUser);
+        return new TaskBulkUpdateResult(hasIds ? request.getIds().size() : null, updatedIds.size());
+    }
+
+    // Whether the given project and user exist, in one query; null IDs are not checked
+    private boolean referencesExist(Long projectId, Long userId) {
+        if (projectId != null && userId != null) {
+            return taskRepository.existsProjectAndUser(projectId, userId);
         }
+        if (projectId != null) {
+            return projectService.findExistingIds(Set.of(projectId)).contains(projectId);
+        }
+        return userId == null || userService.exists(userId);
+    }
 
-        Task updatedTask = taskRepository.save(existingTask);
-        return Optional.of(TaskDTO.fromEntity(updatedTask));
+    private static Long changed(Long requested, Long current) {
+        return requested != null && !requested.equals(current) ? requested : null;
     }
 
     // Delete
+    @Transactional
     public void delete(Long id) {
-        taskRepository.deleteById(id);
+        taskRepository.findById(id).ifPresent(task -> {
+            projectStatsService.taskDeleted(TaskState.of(task));
+            taskRepository.delete(task);
+        });
     }
 
     public boolean exists(Long id) {
@@ -6,30 +6,45 @@ import com.ndungutse.project_tracker.dto.UserDTO;
 import com.ndungutse.project_tracker.exception.ResourceNotFoundException;
 import com.ndungutse.project_tracker.model.Role;
 import com.ndungutse.project_tracker.model.User;
-import com.ndungutse.project_tracker.repository.RoleRepository;
 import com.ndungutse.project_tracker.repository.UserRepository;
+import com.ndungutse.project_tracker.security.CustomUserDetailsService;
+import com.ndungutse.project_tracker.security.PasswordHashingExecutor;
+import com.ndungutse.project_tracker.security.RoleVersionRegistry;
 import jakarta.transaction.Transactional;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 public class UserService {
     private final UserRepository userRepository;
-    private final RoleRepository roleRepository;
-    private final PasswordEncoder passwordEncoder;
-
-    public UserService(UserRepository userRepository, RoleRepository roleRepository, PasswordEncoder passwordEncoder) {
+    private final RoleRegistry roleRegistry;
+    private final PasswordHashingExecutor passwordHashingExecutor;
+    private final RoleVersionRegistry roleVersionRegistry;
+    private final CustomUserDetailsService userDetailsService;
+    private final SessionService sessionService;
+    private final TransactionTemplate transactionTemplate;
+
+    public UserService(UserRepository userRepository, RoleRegistry roleRegistry, PasswordHashingExecutor passwordHashingExecutor,
+            RoleVersionRegistry roleVersionRegistry, CustomUserDetailsService userDetailsService,
+            SessionService sessionService, PlatformTransactionManager transactionManager) {
         this.userRepository = userRepository;
-        this.roleRepository = roleRepository;
-        this.passwordEncoder = passwordEncoder;
+        this.roleRegistry = roleRegistry;
+        this.passwordHashingExecutor = passwordHashingExecutor;
+        this.roleVersionRegistry = roleVersionRegistry;
+        this.userDetailsService = userDetailsService;
+        this.sessionService = sessionService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
-    // Create a new user
-    @Transactional
+    // Create a new user; not transactional as a whole, so no connection is held while BCrypt hashes
     public UserDTO createUser(CreateUserRequest request) {
         // Check if username exists
         if (userRepository.existsByUsername(request.getUsername())) {
@@ -42,18 +57,18 @@ public class UserService {
         }
 
         // Get role
-        Role role = roleRepository.findById(request.getRoleId())
+        Role role = roleRegistry.findById(request.getRoleId())
                 .orElseThrow(() -> new ResourceNotFoundException("Role not found with id: " + request.getRoleId()));
 
-        // Create and save user
+        // Create and save user; the save is the only step that needs a transaction
         User user = User.builder()
                 .username(request.getUsername())
-                .password(passwordEncoder.encode(request.getPassword()))
+                .password(passwordHashingExecutor.encode(request.getPassword()))
                 .email(request.getEmail())
                 .role(role)
                 .build();
 
-        User savedUser = userRepository.save(user);
+        User savedUser = transactionTemplate.execute(status -> userRepository.save(user));
         return UserDTO.fromEntity(savedUser);
     }
 
@@ -71,21 +86,38 @@ public class UserService {
         return user.map(UserDTO::fromEntity);
     }
 
+    // Users with the given IDs keyed by ID, read with their roles in one query; missing IDs are left out
+    public Map<Long, UserDTO> getUsersByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        return userRepository.findByIdIn(ids).stream()
+                .collect(Collectors.toMap(User::getId, UserDTO::fromEntity));
+    }
+
     // Get user by username
     public Optional<UserDTO> getUserByUsername(String username) {
         Optional<User> user = userRepository.findByUsername(username);
         return user.map(UserDTO::fromEntity);
     }
 
-    // Update user
-    @Transactional
+    // Update user; a new password is hashed before the transaction starts
     public Optional<UserDTO> updateUser(Long id, UpdateUserRequest request) {
+        String passwordHash = request.getPassword() != null && !request.getPassword().isBlank()
+                ? passwordHashingExecutor.encode(request.getPassword())
+                : null;
+        return transactionTemplate.execute(status -> applyUpdate(id, request, passwordHash));
+    }
+
+    private Optional<UserDTO> applyUpdate(Long id, UpdateUserRequest request, String passwordHash) {
         Optional<User> existingUser = userRepository.findById(id);
         if (existingUser.isEmpty()) {
             return Optional.empty();
         }
 
         User user = existingUser.get();
+        String previousUsername = user.getUsername();
+        String previousEmail = user.getEmail();
 
         // Update username if provided and not already taken
         if (request.getUsername() != null && !request.getUsername().equals(user.getUsername())) {
@@ -103,29 +135,67 @@ public class UserService {
             user.setEmail(request.getEmail());
         }
 
-        // Update password if provided
-        if (request.getPassword() != null && !request.getPassword().isBlank()) {
-            user.setPassword(passwordEncoder.encode(request.getPassword()));
+        // Update password if provided; existing sessions must log in again with it
+        boolean passwordChanged = false;
+        if (passwordHash != null) {
+            user.setPassword(passwordHash);
+            passwordChanged = true;
         }
 
         // Update role if provided
+        boolean roleChanged = false;
         if (request.getRoleId() != null) {
-            Role role = roleRepository.findById(request.getRoleId())
+            Role role = roleRegistry.findById(request.getRoleId())
                     .orElseThrow(() -> new ResourceNotFoundException("Role not found with id: " + request.getRoleId()));
+            roleChanged = user.getRole() == null || !role.getId().equals(user.getRole().getId());
             user.setRole(role);
         }
 
+        // Tokens carrying the old role must be re-checked against the database
+        if (roleChanged) {
+            user.setRoleVersion(user.getRoleVersion() + 1);
+        }
+
         User updatedUser = userRepository.save(user);
+        if (roleChanged) {
+            roleVersionRegistry.roleChanged(updatedUser.getId(), updatedUser.getRoleVersion());
+        }
+        // The registry only covers this node until it restarts; revoking the sessions is
+        // persisted and synced, so no node keeps accepting tokens with the old role
+        if (passwordChanged || roleChanged) {
+            sessionService.revokeAllForUser(updatedUser.getId());
+        }
+        userDetailsService.evict(previousUsername, previousEmail, updatedUser.getUsername(), updatedUser.getEmail());
         return Optional.of(UserDTO.fromEntity(updatedUser));
     }
 
     // Delete user
     @Transactional
     public void deleteUser(Long id) {
+        User user = userRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
+        // Revoked first: the user's refresh tokens, which name the sessions, go with the user
+        sessionService.revokeAllForUser(id);
+        userRepository.delete(user);
+        roleVersionRegistry.userDeleted(id);
+        userDetailsService.evict(user.getUsername(), user.getEmail());
+    }
+
+    // End the sessions of every holder of a renamed role, whose tokens carry the old role name
+    @Transactional
+    public void roleRenamed(Long roleId) {
+        List<Long> userIds = userRepository.findIdsByRoleId(roleId);
+        userRepository.incrementRoleVersionByRoleId(roleId);
+        userIds.forEach(sessionService::revokeAllForUser);
+    }
+
+    // End every session of a user
+    @Transactional
+    public void revokeSessions(Long id) {
         if (!userRepository.existsById(id)) {
             throw new ResourceNotFoundException("User not found with id: " + id);
         }
-        userRepository.deleteById(id);
+        sessionService.revokeAllForUser(id);
     }
 
     // Check if user exists
@@ -136,4 +206,14 @@ public class UserService {
     public boolean exists(Long userId) {
         return userRepository.existsById(userId);
     }
+
+    // Subset of the given user IDs that exist
+    public Set<Long> findExistingIds(Collection<Long> ids) {
+        return ids.isEmpty() ? Set.of() : userRepository.findExistingIds(ids);
+    }
+
+    // Managed reference to a user known to exist, without loading it
+    public User getReference(Long id) {
+        return userRepository.getReferenceById(id);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,24 @@
+-- Objects added after the baseline for refresh token rotation, session
+-- revocation and role versioning. Databases baselined at version 1 predate
+-- them, so they are created here rather than in V1. Their lookup indexes
+-- are built by V2.
+
+CREATE SEQUENCE refresh_token_seq START WITH 1 INCREMENT BY 50;
+
+ALTER TABLE users ADD COLUMN role_version BIGINT NOT NULL DEFAULT 0;
+
+CREATE TABLE refresh_tokens (
+    id         BIGINT                      NOT NULL PRIMARY KEY,
+    token_hash VARCHAR(64)                 NOT NULL,
+    family_id  VARCHAR(36)                 NOT NULL,
+    user_id    BIGINT                      NOT NULL REFERENCES users (id) ON DELETE CASCADE,
+    created_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    expires_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    revoked_at TIMESTAMP(6) WITH TIME ZONE
+);
+
+CREATE TABLE revoked_tokens (
+    token_id   VARCHAR(36)                 NOT NULL PRIMARY KEY,
+    expires_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    revoked_at TIMESTAMP(6) WITH TIME ZONE NOT NULL
+);
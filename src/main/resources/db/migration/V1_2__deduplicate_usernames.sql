@@ -0,0 +1,10 @@
+-- Registration derived the username from the email's local part without
+-- checking it, so existing databases can hold duplicate usernames, which
+-- would stop V2 from building its unique index. The oldest user keeps each
+-- name and the others become <username>-<id>.
+
+UPDATE users u
+SET username = u.username || '-' || u.id
+FROM (SELECT id, ROW_NUMBER() OVER (PARTITION BY username ORDER BY id) AS n FROM users) d
+WHERE u.id = d.id
+  AND d.n > 1;
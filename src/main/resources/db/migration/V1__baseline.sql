@@ -0,0 +1,40 @@
+-- Schema as previously generated by Hibernate from the entity mappings.
+-- Databases created before migrations existed are baselined at this version.
+
+CREATE SEQUENCE role_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE user_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE project_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE task_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE roles (
+    id        BIGINT       NOT NULL PRIMARY KEY,
+    role_name VARCHAR(255) NOT NULL UNIQUE
+);
+
+CREATE TABLE users (
+    id           BIGINT       NOT NULL PRIMARY KEY,
+    username     VARCHAR(255) NOT NULL,
+    password     VARCHAR(255) NOT NULL,
+    email        VARCHAR(255) NOT NULL UNIQUE,
+    skills       VARCHAR(255),
+    full_name    VARCHAR(255),
+    role_id      BIGINT       NOT NULL REFERENCES roles (id)
+);
+
+CREATE TABLE projects (
+    id          BIGINT       NOT NULL PRIMARY KEY,
+    name        VARCHAR(255),
+    description VARCHAR(255),
+    deadline    DATE,
+    status      BOOLEAN      NOT NULL
+);
+
+CREATE TABLE tasks (
+    id               BIGINT       NOT NULL PRIMARY KEY,
+    title            VARCHAR(255),
+    description      VARCHAR(255),
+    status           BOOLEAN      NOT NULL,
+    due_date         DATE,
+    project_id       BIGINT       REFERENCES projects (id),
+    assigned_user_id BIGINT       REFERENCES users (id)
+);
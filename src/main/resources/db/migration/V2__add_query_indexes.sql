@@ -0,0 +1,31 @@
+-- Indexes for the lookups the repositories and the task search perform.
+-- Built CONCURRENTLY so existing tables stay writable; this script therefore
+-- runs outside a transaction. If a build fails it leaves an INVALID index
+-- behind: drop it and repair before migrating again, because IF NOT EXISTS
+-- would otherwise skip it.
+
+-- Looked up on every login and token refresh; also closes the gap that
+-- allowed duplicate usernames. Fails if duplicates already exist.
+CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS idx_users_username ON users (username);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_role_id ON users (role_id);
+
+-- Task filters: an equality column first, then due_date for ranges and ordering
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_tasks_project_status_due_date ON tasks (project_id, status, due_date);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_tasks_assigned_user_status_due_date ON tasks (assigned_user_id, status, due_date);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_tasks_due_date_id ON tasks (due_date, id);
+
+-- Open tasks are the small, hot subset; completed ones are only worth reaching
+-- through a project or assignee, so status gets a partial index instead of a full one
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_tasks_open_due_date ON tasks (due_date, id) WHERE status = false;
+DROP INDEX CONCURRENTLY IF EXISTS idx_tasks_status_due_date;
+
+-- Case-insensitive title prefix search; text_pattern_ops lets LIKE 'abc%' use the index
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_tasks_title_lower ON tasks (lower(title) text_pattern_ops);
+
+CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS idx_refresh_tokens_token_hash ON refresh_tokens (token_hash);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_refresh_tokens_family_id ON refresh_tokens (family_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_refresh_tokens_user_id_created_at ON refresh_tokens (user_id, created_at);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_refresh_tokens_expires_at ON refresh_tokens (expires_at);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_revoked_tokens_expires_at ON revoked_tokens (expires_at);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_revoked_tokens_revoked_at ON revoked_tokens (revoked_at);
@@ -0,0 +1,40 @@
+-- Per-project task counters, maintained with delta updates by every task write
+-- and repaired by the periodic reconciliation in ProjectStatsService.
+-- overdue_tasks counts open tasks due before the day of the last write or
+-- reconciliation; tasks that fall overdue with time are picked up by the
+-- next reconciliation.
+
+CREATE TABLE project_stats (
+    project_id      BIGINT NOT NULL PRIMARY KEY REFERENCES projects (id) ON DELETE CASCADE,
+    total_tasks     BIGINT NOT NULL DEFAULT 0,
+    completed_tasks BIGINT NOT NULL DEFAULT 0,
+    overdue_tasks   BIGINT NOT NULL DEFAULT 0
+);
+
+-- Open tasks per assignee within a project
+CREATE TABLE project_assignee_stats (
+    project_id BIGINT NOT NULL REFERENCES projects (id) ON DELETE CASCADE,
+    user_id    BIGINT NOT NULL REFERENCES users (id) ON DELETE CASCADE,
+    open_tasks BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (project_id, user_id)
+);
+
+CREATE INDEX idx_project_assignee_stats_user_id ON project_assignee_stats (user_id);
+
+-- Backfill from the existing tasks
+INSERT INTO project_stats (project_id, total_tasks, completed_tasks, overdue_tasks)
+SELECT p.id,
+       COUNT(t.id),
+       COUNT(t.id) FILTER (WHERE t.status),
+       COUNT(t.id) FILTER (WHERE NOT t.status AND t.due_date < CURRENT_DATE)
+FROM projects p
+         LEFT JOIN tasks t ON t.project_id = p.id
+GROUP BY p.id;
+
+INSERT INTO project_assignee_stats (project_id, user_id, open_tasks)
+SELECT project_id, assigned_user_id, COUNT(*)
+FROM tasks
+WHERE NOT status
+  AND project_id IS NOT NULL
+  AND assigned_user_id IS NOT NULL
+GROUP BY project_id, assigned_user_id;
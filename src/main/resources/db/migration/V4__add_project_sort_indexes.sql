@@ -0,0 +1,7 @@
+-- Keyset listings of projects order by one attribute and then by id; each
+-- sort gets an index in that order so a slice is a bounded range scan with no
+-- sort step. NULL deadlines and names sort last, as the ascending default.
+-- Built CONCURRENTLY like V2, so this script runs outside a transaction.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_projects_deadline_id ON projects (deadline, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_projects_status_id ON projects (status, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_projects_name_id ON projects (name, id);
@@ -0,0 +1,7 @@
+-- Overdue counts are no longer maintained in project_stats. A task becomes
+-- overdue when the date passes, not when it is written, so a counter updated
+-- by task writes drifts between reconciliations and can be decremented for
+-- tasks it never counted. Reads now count open tasks due before today over
+-- idx_tasks_project_status_due_date instead.
+
+ALTER TABLE project_stats DROP COLUMN overdue_tasks;
@@ -0,0 +1,9 @@
+-- The status listing pages through either state in id or due date order, but
+-- only open tasks had an index for it. Built CONCURRENTLY like V2, so this
+-- script runs outside a transaction.
+
+-- Completed tasks in due date order, the counterpart of idx_tasks_open_due_date
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_tasks_completed_due_date ON tasks (due_date, id) WHERE status = true;
+
+-- Either state in id order
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_tasks_status_id ON tasks (status, id);
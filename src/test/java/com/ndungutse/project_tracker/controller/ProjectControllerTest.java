@@ -1,6 +1,7 @@
 package com.ndungutse.project_tracker.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ndungutse.project_tracker.dto.CursorPage;
 import com.ndungutse.project_tracker.dto.PageResponse;
 import com.ndungutse.project_tracker.dto.ProjectDTO;
 import com.ndungutse.project_tracker.service.ProjectService;
@@ -24,6 +25,7 @@ import java.util.Optional;
 
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -105,6 +107,29 @@ public class ProjectControllerTest {
         verify(projectService, times(1)).getAll(0, 10);
     }
 
+    @Test
+    void getAllProjects_WithSort_ShouldReturnSliceWithoutTotals() throws Exception {
+        CursorPage<ProjectDTO> slice = new CursorPage<>(projectDTOList, 2, "next");
+        slice.setEstimatedTotal(40L);
+        when(projectService.getSlice(null, 2, "deadline", true)).thenReturn(slice);
+
+        mockMvc.perform(get("/api/v1/projects")
+                .param("size", "2")
+                .param("sort", "deadline")
+                .param("estimateTotal", "true")
+                .param("fields", "id"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(2)))
+                .andExpect(jsonPath("$.content[0].id", is(1)))
+                .andExpect(jsonPath("$.content[0].name").doesNotExist())
+                .andExpect(jsonPath("$.hasNext", is(true)))
+                .andExpect(jsonPath("$.nextCursor", is("next")))
+                .andExpect(jsonPath("$.estimatedTotal", is(40)))
+                .andExpect(jsonPath("$.pagination").doesNotExist());
+
+        verify(projectService, never()).getAll(anyInt(), anyInt());
+    }
+
     @Test
     void getProjectById_WhenProjectExists_ShouldReturnProject() throws Exception {
         when(projectService.getById(1L)).thenReturn(Optional.of(projectDTO));
@@ -134,9 +159,7 @@ public class ProjectControllerTest {
         updatedDTO.setName("Updated Project");
         updatedDTO.setDescription("Updated Description");
 
-        // Note: There's a bug in the controller where it returns 404 if the project exists
-        // For this test, we'll assume the bug is fixed and the condition is correct
-        when(projectService.exists(1L)).thenReturn(false); // This should be true in a fixed version
+        when(projectService.exists(1L)).thenReturn(true);
         when(projectService.update(eq(1L), any(ProjectDTO.class))).thenReturn(updatedDTO);
 
         mockMvc.perform(patch("/api/v1/projects/1")
@@ -153,8 +176,7 @@ public class ProjectControllerTest {
 
     @Test
     void updateProject_WhenProjectDoesNotExist_ShouldReturnNotFound() throws Exception {
-        // Note: Due to the bug in the controller, we need to mock exists() to return true to get a 404
-        when(projectService.exists(99L)).thenReturn(true);
+        when(projectService.exists(99L)).thenReturn(false);
 
         mockMvc.perform(patch("/api/v1/projects/99")
                 .contentType(MediaType.APPLICATION_JSON)
@@ -1,7 +1,10 @@
 package com.ndungutse.project_tracker.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ndungutse.project_tracker.dto.CursorPage;
 import com.ndungutse.project_tracker.dto.TaskDTO;
+import com.ndungutse.project_tracker.dto.TaskView;
+import com.ndungutse.project_tracker.exception.GlobalExceptionHandler;
 import com.ndungutse.project_tracker.service.TaskService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -10,6 +13,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.MediaType;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
@@ -20,6 +24,7 @@ import java.util.Optional;
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -96,18 +101,37 @@ public class TaskControllerTest {
     }
 
     @Test
-    void getAllTasks_ShouldReturnAllTasks() throws Exception {
-        when(taskService.getAll()).thenReturn(taskDTOList);
+    void getAllTasks_WithFieldsAndInclude_ShouldReturnOnlyRequestedFields() throws Exception {
+        when(taskService.getAll(isNull(), isNull(), isNull(), any(TaskView.class)))
+                .thenReturn(new CursorPage<>(taskDTOList, 20, null));
+
+        mockMvc.perform(get("/api/v1/tasks").param("fields", "id,title").param("include", "project"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].id", is(1)))
+                .andExpect(jsonPath("$[0].title", is("Test Task")))
+                .andExpect(jsonPath("$[0].description").doesNotExist())
+                .andExpect(jsonPath("$[0].projectId").doesNotExist());
+
+        verify(taskService).getAll(isNull(), isNull(), isNull(),
+                argThat((TaskView view) -> view.includeProject() && !view.includeAssignee()));
+    }
+
+    @Test
+    void getAllTasks_ShouldReturnFirstPageWithLinkToTheNext() throws Exception {
+        when(taskService.getAll(isNull(), isNull(), isNull(), eq(TaskView.COMPACT)))
+                .thenReturn(new CursorPage<>(taskDTOList, 2, "next-cursor"));
 
         mockMvc.perform(get("/api/v1/tasks"))
                 .andExpect(status().isOk())
+                .andExpect(header().string("Link", "<http://localhost/api/v1/tasks?cursor=next-cursor>; rel=\"next\""))
                 .andExpect(jsonPath("$", hasSize(2)))
                 .andExpect(jsonPath("$[0].id", is(1)))
                 .andExpect(jsonPath("$[0].title", is("Test Task")))
                 .andExpect(jsonPath("$[1].id", is(2)))
                 .andExpect(jsonPath("$[1].title", is("Another Task")));
 
-        verify(taskService, times(1)).getAll();
+        verify(taskService, times(1)).getAll(null, null, null, TaskView.COMPACT);
     }
 
     @Test
@@ -141,7 +165,6 @@ public class TaskControllerTest {
         updatedDTO.setStatus(true); // true = completed
         updatedDTO.setProjectId(1L);
 
-        when(taskService.exists(1L)).thenReturn(true);
         when(taskService.update(eq(1L), any(TaskDTO.class))).thenReturn(Optional.of(updatedDTO));
 
         mockMvc.perform(patch("/api/v1/tasks/1")
@@ -153,35 +176,45 @@ public class TaskControllerTest {
                 .andExpect(jsonPath("$.description", is("Updated Description")))
                 .andExpect(jsonPath("$.status", is(true)));
 
-        verify(taskService, times(1)).exists(1L);
         verify(taskService, times(1)).update(eq(1L), any(TaskDTO.class));
     }
 
     @Test
     void updateTask_WhenTaskDoesNotExist_ShouldReturnNotFound() throws Exception {
-        when(taskService.exists(99L)).thenReturn(false);
+        // The service loads the task itself and reports a missing one as empty
+        when(taskService.update(eq(99L), any(TaskDTO.class))).thenReturn(Optional.empty());
 
         mockMvc.perform(patch("/api/v1/tasks/99")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(taskDTO)))
                 .andExpect(status().isNotFound());
 
-        verify(taskService, times(1)).exists(99L);
-        verify(taskService, never()).update(eq(99L), any(TaskDTO.class));
+        verify(taskService, times(1)).update(eq(99L), any(TaskDTO.class));
     }
 
     @Test
-    void updateTask_WithInvalidData_ShouldReturnBadRequest() throws Exception {
-        when(taskService.exists(1L)).thenReturn(true);
-        when(taskService.update(eq(1L), any(TaskDTO.class))).thenReturn(Optional.empty());
+    void updateTask_WhenAccessIsDenied_ShouldReturnForbidden() throws Exception {
+        mockMvc = MockMvcBuilders.standaloneSetup(taskController)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+        when(taskService.update(eq(1L), any(TaskDTO.class)))
+                .thenThrow(new AccessDeniedException("You can only update tasks assigned to you"));
 
         mockMvc.perform(patch("/api/v1/tasks/1")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(taskDTO)))
+                .andExpect(status().isForbidden())
+                .andExpect(jsonPath("$.message", is("You can only update tasks assigned to you")));
+    }
+
+    @Test
+    void updateTask_WithInvalidData_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(patch("/api/v1/tasks/1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\": "))
                 .andExpect(status().isBadRequest());
 
-        verify(taskService, times(1)).exists(1L);
-        verify(taskService, times(1)).update(eq(1L), any(TaskDTO.class));
+        verify(taskService, never()).update(any(), any(TaskDTO.class));
     }
 
     @Test
@@ -210,7 +243,8 @@ public class TaskControllerTest {
     @Test
     void getTasksByUser_ShouldReturnUserTasks() throws Exception {
         List<TaskDTO> userTasks = Arrays.asList(taskDTO);
-        when(taskService.getTasksByUser(1L)).thenReturn(userTasks);
+        when(taskService.getTasksByUser(1L, null, null, null, TaskView.COMPACT))
+                .thenReturn(new CursorPage<>(userTasks, 20, null));
 
         mockMvc.perform(get("/api/v1/tasks/user/1"))
                 .andExpect(status().isOk())
@@ -219,12 +253,13 @@ public class TaskControllerTest {
                 .andExpect(jsonPath("$[0].title", is("Test Task")))
                 .andExpect(jsonPath("$[0].assignedUserId", is(1)));
 
-        verify(taskService, times(1)).getTasksByUser(1L);
+        verify(taskService, times(1)).getTasksByUser(1L, null, null, null, TaskView.COMPACT);
     }
 
     @Test
     void getTasksByProject_ShouldReturnProjectTasks() throws Exception {
-        when(taskService.getTasksByProject(1L)).thenReturn(taskDTOList);
+        when(taskService.getTasksByProject(1L, null, null, null, TaskView.COMPACT))
+                .thenReturn(new CursorPage<>(taskDTOList, 20, null));
 
         mockMvc.perform(get("/api/v1/tasks/project/1"))
                 .andExpect(status().isOk())
@@ -234,27 +269,30 @@ public class TaskControllerTest {
                 .andExpect(jsonPath("$[1].id", is(2)))
                 .andExpect(jsonPath("$[1].projectId", is(1)));
 
-        verify(taskService, times(1)).getTasksByProject(1L);
+        verify(taskService, times(1)).getTasksByProject(1L, null, null, null, TaskView.COMPACT);
     }
 
     @Test
     void getTasksByStatus_ShouldReturnTasksWithStatus() throws Exception {
         List<TaskDTO> completedTasks = Arrays.asList(taskDTOList.get(1));
-        when(taskService.getTasksByStatus(true)).thenReturn(completedTasks);
+        when(taskService.getTasksByStatus(true, null, null, null, TaskView.COMPACT))
+                .thenReturn(new CursorPage<>(completedTasks, 20, null));
 
         mockMvc.perform(get("/api/v1/tasks/status/true"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$", hasSize(1)))
                 .andExpect(jsonPath("$[0].id", is(2)))
-                .andExpect(jsonPath("$[0].status", is(true)));
+                .andExpect(jsonPath("$[0].status", is(true)))
+                .andExpect(header().doesNotExist("Link"));
 
-        verify(taskService, times(1)).getTasksByStatus(true);
+        verify(taskService, times(1)).getTasksByStatus(true, null, null, null, TaskView.COMPACT);
     }
 
     @Test
     void getTasksByStatus_ShouldReturnTasksWithDifferentStatus() throws Exception {
         List<TaskDTO> incompleteTasks = Arrays.asList(taskDTOList.get(0));
-        when(taskService.getTasksByStatus(false)).thenReturn(incompleteTasks);
+        when(taskService.getTasksByStatus(false, null, null, null, TaskView.COMPACT))
+                .thenReturn(new CursorPage<>(incompleteTasks, 20, null));
 
         mockMvc.perform(get("/api/v1/tasks/status/false"))
                 .andExpect(status().isOk())
@@ -262,6 +300,6 @@ public class TaskControllerTest {
                 .andExpect(jsonPath("$[0].id", is(1)))
                 .andExpect(jsonPath("$[0].status", is(false)));
 
-        verify(taskService, times(1)).getTasksByStatus(false);
+        verify(taskService, times(1)).getTasksByStatus(false, null, null, null, TaskView.COMPACT);
     }
 }
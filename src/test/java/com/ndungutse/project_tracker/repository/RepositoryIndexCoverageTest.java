@@ -0,0 +1,194 @@
+package com.ndungutse.project_tracker.repository;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.Table;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.core.type.filter.AssignableTypeFilter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.mapping.PropertyPath;
+import org.springframework.data.repository.query.parser.Part;
+import org.springframework.data.repository.query.parser.PartTree;
+import org.springframework.util.ReflectionUtils;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Fails when a derived finder on a JPA repository filters on a column that the
+ * migrations do not index. The leading criterion of every OR branch must be
+ * the first column of an index, a primary key or unique column, or the column
+ * a partial index is restricted on. A partial index only counts when the OR
+ * branch pins its predicate, as findByStatusFalse does for WHERE status = false;
+ * a finder taking the value as an argument may ask for the rows the index
+ * leaves out. Methods with an explicit @Query are not checked.
+ */
+public class RepositoryIndexCoverageTest {
+
+    private static final Pattern MIGRATION_VERSION = Pattern.compile("V(\\d+(?:_\\d+)*)__");
+    private static final Pattern COMMENT = Pattern.compile("--.*$", Pattern.MULTILINE);
+    private static final Pattern CREATE_TABLE = Pattern.compile(
+            "CREATE TABLE (\\w+) \\((.*?)\\n\\);", Pattern.DOTALL | Pattern.CASE_INSENSITIVE);
+    private static final Pattern KEY_COLUMN = Pattern.compile(
+            "^\\s*(\\w+)\\s+.*\\b(?:PRIMARY KEY|UNIQUE)\\b", Pattern.MULTILINE | Pattern.CASE_INSENSITIVE);
+    private static final Pattern CREATE_INDEX = Pattern.compile(
+            "CREATE\\s+(?:UNIQUE\\s+)?INDEX\\s+(?:CONCURRENTLY\\s+)?(?:IF\\s+NOT\\s+EXISTS\\s+)?(\\w+)\\s+ON\\s+(\\w+)"
+                    + "\\s*\\(\\s*(?:\\w+\\()?(\\w+)[^;]*?(?:WHERE\\s+([^;]+))?;",
+            Pattern.CASE_INSENSITIVE);
+    private static final Pattern DROP_INDEX = Pattern.compile(
+            "DROP\\s+INDEX\\s+(?:CONCURRENTLY\\s+)?(?:IF\\s+EXISTS\\s+)?(\\w+)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern PREDICATE = Pattern.compile(
+            "^\\s*(\\w+)\\s*=\\s*(true|false)\\s*$", Pattern.CASE_INSENSITIVE);
+    private static final Pattern DERIVED_QUERY = Pattern.compile(
+            "^(find|read|get|query|search|stream|count|exists|delete|remove)\\w*By\\w+");
+
+    private record Index(String table, String leadingColumn, String predicate) {
+        boolean supports(String table, String column, Map<String, Boolean> pinned) {
+            if (!this.table.equalsIgnoreCase(table)) {
+                return false;
+            }
+            if (predicate == null) {
+                return leadingColumn.equalsIgnoreCase(column);
+            }
+            // Only simple boolean predicates are understood; anything else never counts
+            Matcher condition = PREDICATE.matcher(predicate);
+            if (!condition.matches()
+                    || !Boolean.valueOf(condition.group(2)).equals(pinned.get(condition.group(1).toLowerCase()))) {
+                return false;
+            }
+            return leadingColumn.equalsIgnoreCase(column) || condition.group(1).equalsIgnoreCase(column);
+        }
+    }
+
+    @Test
+    void everyDerivedFinder_ShouldHaveASupportingIndex() throws Exception {
+        List<Index> indexes = new ArrayList<>(loadIndexes().values());
+        List<String> unsupported = new ArrayList<>();
+        int checked = 0;
+
+        for (Class<?> repository : jpaRepositories()) {
+            Class<?> domainType = ResolvableType.forClass(repository).as(JpaRepository.class).resolveGeneric(0);
+            String table = domainType.getAnnotation(Table.class).name();
+
+            for (Method method : repository.getDeclaredMethods()) {
+                if (method.isDefault() || Modifier.isStatic(method.getModifiers())
+                        || method.isAnnotationPresent(Query.class)
+                        || !DERIVED_QUERY.matcher(method.getName()).matches()) {
+                    continue;
+                }
+                for (PartTree.OrPart orPart : new PartTree(method.getName(), domainType)) {
+                    Part leading = orPart.iterator().next();
+                    String column = column(domainType, leading.getProperty());
+                    Map<String, Boolean> pinned = pinned(domainType, orPart);
+                    checked++;
+                    if (indexes.stream().noneMatch(index -> index.supports(table, column, pinned))) {
+                        unsupported.add(repository.getSimpleName() + "." + method.getName() + " -> " + table + "." + column);
+                    }
+                }
+            }
+        }
+
+        assertFalse(checked == 0, "No derived finders were found to check");
+        assertTrue(unsupported.isEmpty(), () -> "Finders without a supporting index:\n" + String.join("\n", unsupported));
+    }
+
+    // Columns an OR branch fixes to a literal through IsTrue or IsFalse
+    private static Map<String, Boolean> pinned(Class<?> domainType, PartTree.OrPart orPart) {
+        Map<String, Boolean> pinned = new HashMap<>();
+        for (Part part : orPart) {
+            if (part.getType() == Part.Type.TRUE || part.getType() == Part.Type.FALSE) {
+                pinned.put(column(domainType, part.getProperty()).toLowerCase(), part.getType() == Part.Type.TRUE);
+            }
+        }
+        return pinned;
+    }
+
+    // Indexes left after applying every migration in version order, keyed by name
+    private static Map<String, Index> loadIndexes() throws IOException {
+        Resource[] migrations = new PathMatchingResourcePatternResolver().getResources("classpath:db/migration/V*.sql");
+        Arrays.sort(migrations, (left, right) -> Arrays.compare(version(left), version(right)));
+
+        Map<String, Index> indexes = new LinkedHashMap<>();
+        for (Resource migration : migrations) {
+            String sql = COMMENT.matcher(migration.getContentAsString(StandardCharsets.UTF_8)).replaceAll("");
+
+            Matcher table = CREATE_TABLE.matcher(sql);
+            while (table.find()) {
+                Matcher key = KEY_COLUMN.matcher(table.group(2));
+                while (key.find()) {
+                    indexes.put(table.group(1) + "." + key.group(1), new Index(table.group(1), key.group(1), null));
+                }
+            }
+
+            Matcher created = CREATE_INDEX.matcher(sql);
+            while (created.find()) {
+                indexes.put(created.group(1), new Index(created.group(2), created.group(3), created.group(4)));
+            }
+
+            Matcher dropped = DROP_INDEX.matcher(sql);
+            while (dropped.find()) {
+                indexes.remove(dropped.group(1));
+            }
+        }
+        return indexes;
+    }
+
+    // Flyway versions such as 1_1 compare part by part, so V1_1 runs between V1 and V2
+    private static int[] version(Resource migration) {
+        Matcher matcher = MIGRATION_VERSION.matcher(migration.getFilename());
+        if (!matcher.find()) {
+            return new int[]{Integer.MAX_VALUE};
+        }
+        return Arrays.stream(matcher.group(1).split("_")).mapToInt(Integer::parseInt).toArray();
+    }
+
+    private static List<Class<?>> jpaRepositories() throws ClassNotFoundException {
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false) {
+            @Override
+            protected boolean isCandidateComponent(AnnotatedBeanDefinition beanDefinition) {
+                return beanDefinition.getMetadata().isInterface();
+            }
+        };
+        scanner.addIncludeFilter(new AssignableTypeFilter(JpaRepository.class));
+
+        List<Class<?>> repositories = new ArrayList<>();
+        for (BeanDefinition candidate : scanner.findCandidateComponents(RepositoryIndexCoverageTest.class.getPackageName())) {
+            repositories.add(Class.forName(candidate.getBeanClassName()));
+        }
+        return repositories;
+    }
+
+    // Column a property path filters on; a path through an association uses its join column
+    private static String column(Class<?> domainType, PropertyPath path) {
+        Field field = ReflectionUtils.findField(domainType, path.getSegment());
+        if (path.hasNext()) {
+            return field.getAnnotation(JoinColumn.class).name();
+        }
+        Column column = field.getAnnotation(Column.class);
+        if (column != null && !column.name().isEmpty()) {
+            return column.name();
+        }
+        return path.getSegment().replaceAll("([a-z0-9])([A-Z])", "$1_$2").toLowerCase();
+    }
+}
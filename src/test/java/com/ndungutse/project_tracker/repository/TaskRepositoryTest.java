@@ -3,6 +3,7 @@ package com.ndungutse.project_tracker.repository;
 import com.ndungutse.project_tracker.model.Project;
 import com.ndungutse.project_tracker.model.Task;
 import com.ndungutse.project_tracker.model.User;
+import org.hibernate.Hibernate;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -86,17 +87,15 @@ public class TaskRepositoryTest {
     }
 
     @Test
-    void findByStatus_ShouldReturnTasksWithStatus() {
+    void findByProjectId_ShouldNotLoadAssociations() {
+        entityManager.clear();
+
         // Act
-        List<Task> completedTasks = taskRepository.findByStatus(true);
-        List<Task> incompleteTasks = taskRepository.findByStatus(false);
+        List<Task> tasks = taskRepository.findByProjectId(project.getId());
 
         // Assert
-        assertNotNull(completedTasks);
-        assertNotNull(incompleteTasks);
-        assertEquals(1, completedTasks.size());
-        assertEquals(1, incompleteTasks.size());
-        assertTrue(completedTasks.stream().allMatch(Task::isStatus));
-        assertTrue(incompleteTasks.stream().noneMatch(Task::isStatus));
+        assertEquals(2, tasks.size());
+        assertTrue(tasks.stream().noneMatch(task -> Hibernate.isInitialized(task.getProject())));
+        assertTrue(tasks.stream().noneMatch(task -> Hibernate.isInitialized(task.getAssignedUser())));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,66 @@
+package com.ndungutse.project_tracker.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that every filter shape the task search produces is answered from an
+ * index on PostgreSQL. Runs only when TEST_DATABASE_URL points at a scratch
+ * PostgreSQL database, which Flyway migrates; sequential scans are disabled so
+ * the plan shows which index the planner would pick regardless of how little
+ * data the table holds.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@EnabledIfEnvironmentVariable(named = "TEST_DATABASE_URL", matches = ".+")
+public class TaskSearchExplainTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> System.getenv("TEST_DATABASE_URL"));
+        registry.add("spring.datasource.username", () -> System.getenv("TEST_DATABASE_USERNAME"));
+        registry.add("spring.datasource.password", () -> System.getenv("TEST_DATABASE_PASSWORD"));
+    }
+
+    @BeforeEach
+    void disableSequentialScans() {
+        // Local to the test transaction, which is rolled back afterwards
+        jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+    }
+
+    // The where clauses mirror what TaskSpecifications.matching renders for each shape
+    @ParameterizedTest(name = "{0}")
+    @CsvSource(delimiter = '|', value = {
+            "project                  | project_id = 1                                                      | idx_tasks_project_status_due_date",
+            "project, status          | project_id = 1 AND status = true                                    | idx_tasks_project_status_due_date",
+            "project, status, due     | project_id = 1 AND status = true AND due_date BETWEEN '2025-01-01' AND '2025-03-31' | idx_tasks_project_status_due_date",
+            "assignee                 | assigned_user_id = 1                                                | idx_tasks_assigned_user_status_due_date",
+            "assignee, status         | assigned_user_id = 1 AND status = true                              | idx_tasks_assigned_user_status_due_date",
+            "assignee, status, due    | assigned_user_id = 1 AND status = true AND due_date <= '2025-03-31' | idx_tasks_assigned_user_status_due_date",
+            "open                     | status = false                                                      | idx_tasks_open_due_date",
+            "open, due                | status = false AND due_date >= '2025-01-01'                         | idx_tasks_open_due_date",
+            "due                      | due_date BETWEEN '2025-01-01' AND '2025-03-31'                      | idx_tasks_due_date_id",
+            "title prefix             | lower(title) LIKE 'release%' ESCAPE '\\'                            | idx_tasks_title_lower"
+    })
+    void filterShape_ShouldUseIndex(String shape, String where, String expectedIndex) {
+        List<String> plan = jdbcTemplate.queryForList("EXPLAIN SELECT * FROM tasks WHERE " + where, String.class);
+
+        assertTrue(plan.stream().anyMatch(line -> line.contains(expectedIndex)),
+                () -> shape + " did not use " + expectedIndex + ":\n" + String.join("\n", plan));
+    }
+}
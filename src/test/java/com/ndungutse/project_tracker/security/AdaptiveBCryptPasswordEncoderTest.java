@@ -0,0 +1,45 @@
+package com.ndungutse.project_tracker.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AdaptiveBCryptPasswordEncoderTest {
+
+    @Test
+    void upgradeEncoding_WhenCostDiffers_ShouldReturnTrue() {
+        AdaptiveBCryptPasswordEncoder encoder = new AdaptiveBCryptPasswordEncoder(5);
+
+        assertTrue(encoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("password")));
+        assertTrue(encoder.upgradeEncoding(new BCryptPasswordEncoder(6).encode("password")));
+        assertFalse(encoder.upgradeEncoding(encoder.encode("password")));
+    }
+
+    @Test
+    void delegatingEncoder_ShouldMatchLegacyHashAndFlagItForUpgrade() {
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder("bcrypt",
+                Map.<String, PasswordEncoder>of("bcrypt", new AdaptiveBCryptPasswordEncoder(4)));
+        encoder.setDefaultPasswordEncoderForMatches(new BCryptPasswordEncoder());
+        String legacy = new BCryptPasswordEncoder(4).encode("password");
+
+        assertTrue(encoder.matches("password", legacy));
+        assertTrue(encoder.upgradeEncoding(legacy));
+
+        String upgraded = encoder.encode("password");
+        assertTrue(upgraded.startsWith("{bcrypt}$2a$04$"));
+        assertTrue(encoder.matches("password", upgraded));
+        assertFalse(encoder.upgradeEncoding(upgraded));
+    }
+
+    @Test
+    void calibrate_ShouldStayWithinBounds() {
+        int cost = AdaptiveBCryptPasswordEncoder.calibrate(1, 4, 6);
+
+        assertTrue(cost >= 4 && cost <= 6);
+    }
+}
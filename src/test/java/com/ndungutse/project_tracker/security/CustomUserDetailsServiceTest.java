@@ -0,0 +1,73 @@
+package com.ndungutse.project_tracker.security;
+
+import com.ndungutse.project_tracker.model.Role;
+import com.ndungutse.project_tracker.model.User;
+import com.ndungutse.project_tracker.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CustomUserDetailsServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private CustomUserDetailsService userDetailsService;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        userDetailsService = new CustomUserDetailsService(userRepository, new SimpleMeterRegistry(), 100, 60000);
+
+        user = User.builder()
+                .id(1L)
+                .username("testuser")
+                .email("test@example.com")
+                .password("password")
+                .role(Role.builder().id(1L).roleName("DEVELOPER").build())
+                .build();
+    }
+
+    @Test
+    void loadUserByUsername_WhenCached_ShouldNotQueryAgainByUsernameOrEmail() {
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(user));
+
+        userDetailsService.loadUserByUsername("testuser");
+        userDetailsService.loadUserByUsername("testuser");
+        userDetailsService.loadUserByUsername("test@example.com");
+
+        verify(userRepository, times(1)).findByUsername("testuser");
+        verify(userRepository, never()).findByEmail(any());
+        assertEquals(2, userDetailsService.getCacheStats().hitCount());
+        assertEquals(1, userDetailsService.getCacheStats().missCount());
+    }
+
+    @Test
+    void evict_ShouldForceReload() {
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(user));
+
+        userDetailsService.loadUserByUsername("testuser");
+        userDetailsService.evict("testuser", "test@example.com");
+        userDetailsService.loadUserByUsername("testuser");
+
+        verify(userRepository, times(2)).findByUsername("testuser");
+    }
+
+    @Test
+    void loadUserByUsername_WhenUserDoesNotExist_ShouldThrow() {
+        when(userRepository.findByUsername("missing")).thenReturn(Optional.empty());
+        when(userRepository.findByEmail("missing")).thenReturn(Optional.empty());
+
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUserByUsername("missing"));
+    }
+}
@@ -0,0 +1,111 @@
+package com.ndungutse.project_tracker.security;
+
+import com.ndungutse.project_tracker.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InMemoryLoginRateLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private InMemoryLoginRateLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        limiter = newLimiter(100);
+    }
+
+    private InMemoryLoginRateLimiter newLimiter(int maxEntries) {
+        return new InMemoryLoginRateLimiter(new SimpleMeterRegistry(),
+                new InMemoryLoginRateLimiter.Limit(3, 60),
+                new InMemoryLoginRateLimiter.Limit(5, 60),
+                2, 1000, 60000, maxEntries, 4, clock::get);
+    }
+
+    private void advance(long millis) {
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+
+    @Test
+    void acquire_WhenPrincipalBucketIsEmpty_ShouldRejectUntilRefilled() {
+        for (int i = 0; i < 3; i++) {
+            limiter.acquire("User@Example.com", "10.0.0.1");
+        }
+
+        TooManyRequestsException ex = assertThrows(TooManyRequestsException.class,
+                () -> limiter.acquire("user@example.com", "10.0.0.2"));
+        assertEquals(1, ex.getRetryAfterSeconds());
+
+        advance(1000);
+        assertDoesNotThrow(() -> limiter.acquire("user@example.com", "10.0.0.2"));
+    }
+
+    @Test
+    void acquire_WhenClientBucketIsEmpty_ShouldRejectOtherPrincipals() {
+        for (int i = 0; i < 5; i++) {
+            limiter.acquire("user" + i, "10.0.0.1");
+        }
+
+        assertThrows(TooManyRequestsException.class, () -> limiter.acquire("another", "10.0.0.1"));
+        assertDoesNotThrow(() -> limiter.acquire("another", "10.0.0.2"));
+    }
+
+    @Test
+    void recordFailure_PastThreshold_ShouldLockOutWithGrowingDelay() {
+        limiter.recordFailure("user", "10.0.0.1");
+        limiter.recordFailure("user", "10.0.0.1");
+        assertEquals(1, assertThrows(TooManyRequestsException.class,
+                () -> limiter.acquire("user", "10.0.0.1")).getRetryAfterSeconds());
+
+        limiter.recordFailure("user", "10.0.0.1");
+        assertEquals(2, assertThrows(TooManyRequestsException.class,
+                () -> limiter.acquire("user", "10.0.0.1")).getRetryAfterSeconds());
+
+        limiter.recordSuccess("user", "10.0.0.1");
+        assertDoesNotThrow(() -> limiter.acquire("user", "10.0.0.1"));
+    }
+
+    @Test
+    void drainedBucket_ShouldSurviveEvictionPressure() {
+        InMemoryLoginRateLimiter small = newLimiter(4);
+        for (int i = 0; i < 3; i++) {
+            small.acquire("victim", null);
+        }
+
+        // Filling every stripe with new principals must not hand the victim a full bucket
+        for (int i = 0; i < 100; i++) {
+            small.acquire("other" + i, null);
+        }
+        assertThrows(TooManyRequestsException.class, () -> small.acquire("victim", null));
+    }
+
+    @Test
+    void lockedOutBucket_ShouldSurviveEvictionPressure() {
+        InMemoryLoginRateLimiter small = newLimiter(4);
+        small.recordFailure("victim", null);
+        small.recordFailure("victim", null);
+
+        for (int i = 0; i < 100; i++) {
+            small.acquire("other" + i, null);
+        }
+        assertThrows(TooManyRequestsException.class, () -> small.acquire("victim", null));
+    }
+
+    @Test
+    void idleBucket_ShouldBeEvictedWhenOverCapacity() {
+        InMemoryLoginRateLimiter small = newLimiter(4);
+        small.recordFailure("idle", null);
+
+        // The full, unlocked bucket goes, and its failure count with it
+        for (int i = 0; i < 100; i++) {
+            small.acquire("other" + i, null);
+        }
+        small.recordFailure("idle", null);
+        assertDoesNotThrow(() -> small.acquire("idle", null));
+    }
+}
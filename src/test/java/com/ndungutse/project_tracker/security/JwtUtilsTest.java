@@ -0,0 +1,94 @@
+package com.ndungutse.project_tracker.security;
+
+import com.ndungutse.project_tracker.model.Role;
+import com.ndungutse.project_tracker.model.User;
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JwtUtilsTest {
+
+    private static final String SECRET = "dGhpcy1pcy1hLXRlc3Qtc2VjcmV0LWZvci1wcm9qZWN0LXRyYWNrZXItand0LXNpZ25pbmc=";
+
+    private JwtUtils jwtUtils;
+    private UserDetails userDetails;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtils = newJwtUtils("60000");
+        userDetails = new org.springframework.security.core.userdetails.User("testuser", "password", List.of());
+    }
+
+    private JwtUtils newJwtUtils(String expirationMs) {
+        JwtUtils utils = new JwtUtils();
+        ReflectionTestUtils.setField(utils, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(utils, "jwtExpirationMS", expirationMs);
+        ReflectionTestUtils.setField(utils, "jwtVerifiedCacheSize", 100L);
+        utils.init();
+        return utils;
+    }
+
+    @Test
+    void verifyJwtToken_WithValidToken_ShouldReturnClaims() {
+        String token = jwtUtils.generateJwtTokenFromUsername(userDetails);
+
+        Optional<Claims> claims = jwtUtils.verifyJwtToken(token);
+
+        assertTrue(claims.isPresent());
+        assertEquals("testuser", claims.get().getSubject());
+    }
+
+    @Test
+    void verifyJwtToken_WhenCalledTwice_ShouldReuseVerifiedClaims() {
+        String token = jwtUtils.generateJwtTokenFromUsername(userDetails);
+
+        Claims first = jwtUtils.verifyJwtToken(token).orElseThrow();
+        Claims second = jwtUtils.verifyJwtToken(token).orElseThrow();
+
+        assertSame(first, second);
+    }
+
+    @Test
+    void generateJwtToken_WithCustomUserDetails_ShouldEmbedPrincipalClaims() {
+        User user = User.builder()
+                .id(7L)
+                .username("developer")
+                .password("password")
+                .role(Role.builder().id(3L).roleName("DEVELOPER").build())
+                .roleVersion(2L)
+                .build();
+        String token = jwtUtils.generateJwtTokenFromUsername(new CustomUserDetails(user));
+
+        UserPrincipal principal = UserPrincipal.fromClaims(jwtUtils.verifyJwtToken(token).orElseThrow());
+
+        assertNotNull(principal);
+        assertEquals(7L, principal.getUserId());
+        assertEquals("developer", principal.getUsername());
+        assertEquals("DEVELOPER", principal.getRoleName());
+        assertEquals(2L, principal.getRoleVersion());
+        assertEquals("ROLE_DEVELOPER", principal.getAuthorities().get(0).getAuthority());
+    }
+
+    @Test
+    void verifyJwtToken_WithTamperedToken_ShouldReturnEmpty() {
+        String token = jwtUtils.generateJwtTokenFromUsername(userDetails);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        assertTrue(jwtUtils.verifyJwtToken(tampered).isEmpty());
+        assertFalse(jwtUtils.validateJwtToken(tampered));
+    }
+
+    @Test
+    void verifyJwtToken_WithExpiredToken_ShouldReturnEmpty() {
+        String token = newJwtUtils("-1000").generateJwtTokenFromUsername(userDetails);
+
+        assertTrue(jwtUtils.verifyJwtToken(token).isEmpty());
+    }
+}
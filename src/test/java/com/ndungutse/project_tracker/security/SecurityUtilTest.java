@@ -0,0 +1,69 @@
+package com.ndungutse.project_tracker.security;
+
+import com.ndungutse.project_tracker.model.Task;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SecurityUtilTest {
+
+    private SecurityUtil securityUtil;
+
+    @BeforeEach
+    void setUp() {
+        securityUtil = new SecurityUtil();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private void authenticateAs(Long userId, String roleName) {
+        UserPrincipal principal = new UserPrincipal(userId, "user" + userId, roleName, 0);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    private Task taskAssignedTo(Long userId) {
+        Task task = new Task();
+        task.setId(1L);
+        task.setAssignedUserId(userId);
+        return task;
+    }
+
+    @Test
+    void validateTaskUpdateAccess_AsAssignedDeveloper_ShouldPass() {
+        authenticateAs(7L, "DEVELOPER");
+
+        assertDoesNotThrow(() -> securityUtil.validateTaskUpdateAccess(taskAssignedTo(7L)));
+    }
+
+    @Test
+    void validateTaskUpdateAccess_AsOtherDeveloper_ShouldBeDenied() {
+        authenticateAs(8L, "DEVELOPER");
+
+        assertThrows(AccessDeniedException.class, () -> securityUtil.validateTaskUpdateAccess(taskAssignedTo(7L)));
+    }
+
+    @Test
+    void validateTaskUpdateAccess_AsManager_ShouldPassForAnyTask() {
+        authenticateAs(2L, "MANAGER");
+
+        assertDoesNotThrow(() -> securityUtil.validateTaskUpdateAccess(taskAssignedTo(7L)));
+    }
+
+    @Test
+    void validateTaskUpdateRole_AsContractor_ShouldBeDenied() {
+        authenticateAs(3L, "CONTRACTOR");
+
+        assertThrows(AccessDeniedException.class, () -> securityUtil.validateTaskUpdateRole());
+        assertTrue(securityUtil.hasRole("CONTRACTOR"));
+        assertFalse(securityUtil.hasRole("ADMIN"));
+    }
+}
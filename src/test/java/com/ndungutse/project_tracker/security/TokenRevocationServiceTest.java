@@ -0,0 +1,100 @@
+package com.ndungutse.project_tracker.security;
+
+import com.ndungutse.project_tracker.model.RevokedToken;
+import com.ndungutse.project_tracker.repository.RevokedTokenRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TokenRevocationServiceTest {
+
+    @Mock
+    private RevokedTokenRepository revokedTokenRepository;
+
+    private TokenRevocationService tokenRevocationService;
+
+    @BeforeEach
+    void setUp() {
+        tokenRevocationService = new TokenRevocationService(revokedTokenRepository, new SimpleMeterRegistry(), 1000,
+                0.01);
+    }
+
+    @Test
+    void isRevoked_WhenNeverRevoked_ShouldNotQueryDatabase() {
+        for (int i = 0; i < 100; i++) {
+            tokenRevocationService.revoke("revoked-" + i, Instant.now().plusSeconds(60));
+        }
+
+        assertFalse(tokenRevocationService.isRevoked("some-other-token"));
+        verify(revokedTokenRepository, never()).findById(any());
+    }
+
+    @Test
+    void isRevoked_AfterRevoke_ShouldBeConfirmedInMemory() {
+        tokenRevocationService.revoke("token-1", Instant.now().plusSeconds(60));
+
+        assertTrue(tokenRevocationService.isRevoked("token-1"));
+        verify(revokedTokenRepository).save(any(RevokedToken.class));
+        verify(revokedTokenRepository, never()).findById(any());
+    }
+
+    @Test
+    void sync_ShouldPickUpRevocationsFromOtherNodes() {
+        when(revokedTokenRepository.findByRevokedAtAfterAndExpiresAtAfter(any(), any())).thenReturn(List.of(
+                new RevokedToken("remote-token", Instant.now().plusSeconds(60), Instant.now())));
+
+        tokenRevocationService.sync();
+
+        assertTrue(tokenRevocationService.isRevoked("remote-token"));
+    }
+
+    @Test
+    void prune_ShouldForgetExpiredRevocations() {
+        when(revokedTokenRepository.findByRevokedAtAfterAndExpiresAtAfter(any(), any())).thenReturn(List.of(
+                new RevokedToken("short-lived", Instant.now().plusMillis(50), Instant.now())));
+        tokenRevocationService.sync();
+        assertTrue(tokenRevocationService.isRevoked("short-lived"));
+
+        await(100);
+        tokenRevocationService.prune();
+
+        assertFalse(tokenRevocationService.isRevoked("short-lived"));
+        verify(revokedTokenRepository).deleteExpired(any());
+    }
+
+    @Test
+    void bloomFilter_ShouldHaveNoFalseNegativesAndFewFalsePositives() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("jti-" + i);
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain("jti-" + i));
+            if (filter.mightContain("other-" + i)) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 300, "false positives: " + falsePositives);
+    }
+
+    private static void await(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
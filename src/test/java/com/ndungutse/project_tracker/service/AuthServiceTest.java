@@ -0,0 +1,101 @@
+package com.ndungutse.project_tracker.service;
+
+import com.ndungutse.project_tracker.dto.RegisterRequest;
+import com.ndungutse.project_tracker.exception.ConflictException;
+import com.ndungutse.project_tracker.model.Role;
+import com.ndungutse.project_tracker.model.User;
+import com.ndungutse.project_tracker.repository.UserRepository;
+import com.ndungutse.project_tracker.security.JwtUtils;
+import com.ndungutse.project_tracker.security.LoginRateLimiter;
+import com.ndungutse.project_tracker.security.PasswordHashingExecutor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class AuthServiceTest {
+
+    @Mock
+    private AuthenticationManager authenticationManager;
+
+    @Mock
+    private JwtUtils jwtUtils;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private RoleRegistry roleRegistry;
+
+    @Mock
+    private PasswordHashingExecutor passwordHashingExecutor;
+
+    @Mock
+    private PasswordUpgradeService passwordUpgradeService;
+
+    @Mock
+    private RefreshTokenService refreshTokenService;
+
+    @Mock
+    private SessionService sessionService;
+
+    @Mock
+    private LoginRateLimiter loginRateLimiter;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private AuthService authService;
+    private RegisterRequest request;
+
+    @BeforeEach
+    void setUp() {
+        authService = new AuthService(authenticationManager, jwtUtils, userRepository, roleRegistry,
+                passwordHashingExecutor, passwordUpgradeService, refreshTokenService, sessionService,
+                loginRateLimiter, transactionManager);
+        request = new RegisterRequest();
+        request.setEmail("alice@b.com");
+        request.setPassword("secret123");
+
+        when(roleRegistry.findByName("CONTRACTOR"))
+                .thenReturn(Optional.of(Role.builder().id(4L).roleName("CONTRACTOR").build()));
+        when(passwordHashingExecutor.encode("secret123")).thenReturn("hash");
+    }
+
+    @Test
+    void register_WhenLocalPartIsTaken_ShouldSuffixTheUsername() {
+        when(userRepository.existsByUsername(anyString())).thenAnswer(call -> call.getArgument(0).equals("alice"));
+        when(userRepository.save(any(User.class))).thenAnswer(call -> call.getArgument(0));
+        when(refreshTokenService.issue(any())).thenAnswer(call ->
+                new RefreshTokenService.IssuedToken("refresh", call.getArgument(0), "family-1"));
+
+        authService.register(request);
+
+        ArgumentCaptor<User> saved = ArgumentCaptor.forClass(User.class);
+        verify(userRepository).save(saved.capture());
+        assertTrue(saved.getValue().getUsername().matches("alice\\d{4}"), saved.getValue().getUsername());
+    }
+
+    @Test
+    void register_WhenAConcurrentRegistrationWins_ShouldReportAConflict() {
+        when(userRepository.save(any(User.class))).thenThrow(new DataIntegrityViolationException("duplicate key"));
+
+        ConflictException e = assertThrows(ConflictException.class, () -> authService.register(request));
+
+        assertFalse(e.getMessage().contains("duplicate key"));
+        verifyNoInteractions(refreshTokenService);
+    }
+}
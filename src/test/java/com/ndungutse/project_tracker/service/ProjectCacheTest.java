@@ -0,0 +1,95 @@
+package com.ndungutse.project_tracker.service;
+
+import com.ndungutse.project_tracker.dto.ProjectDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ProjectCacheTest {
+
+    private ProjectCache projectCache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        projectCache = new ProjectCache(new SimpleMeterRegistry(), 100, 60_000, 60_000);
+        loads = new AtomicInteger();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void get_ShouldLoadOnceAndCacheMissingProjectsToo() {
+        for (int i = 0; i < 3; i++) {
+            assertTrue(projectCache.get(1L, this::load).isPresent());
+            assertTrue(projectCache.get(99L, this::load).isEmpty());
+        }
+
+        assertEquals(2, loads.get());
+        assertEquals(4, projectCache.getCacheStats().hitCount());
+    }
+
+    @Test
+    void get_ShouldReturnCopiesThatCannotChangeTheCachedProject() {
+        projectCache.get(1L, this::load).orElseThrow().setName("Changed");
+
+        assertEquals("Project 1", projectCache.get(1L, this::load).orElseThrow().getName());
+    }
+
+    @Test
+    void getAll_ShouldLoadOnlyMissesInOneCall() {
+        projectCache.get(1L, this::load);
+        AtomicInteger bulkLoads = new AtomicInteger();
+
+        Map<Long, ProjectDTO> projects = projectCache.getAll(List.of(1L, 2L, 99L), missing -> {
+            bulkLoads.incrementAndGet();
+            assertEquals(Set.of(2L, 99L), missing);
+            return Map.of(2L, project(2L));
+        });
+
+        assertEquals(Set.of(1L, 2L), projects.keySet());
+        assertEquals(1, bulkLoads.get());
+        // The missing ID was cached as missing
+        assertTrue(projectCache.get(99L, id -> fail("should be cached")).isEmpty());
+    }
+
+    @Test
+    void evict_InTransaction_ShouldEvictAgainAfterCommit() {
+        projectCache.get(1L, this::load);
+        TransactionSynchronizationManager.initSynchronization();
+
+        projectCache.evict(1L);
+        // A concurrent read re-caches the state from before the commit
+        projectCache.get(1L, this::load);
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        projectCache.get(1L, this::load);
+
+        assertEquals(3, loads.get());
+    }
+
+    private Optional<ProjectDTO> load(Long id) {
+        loads.incrementAndGet();
+        return id < 10 ? Optional.of(project(id)) : Optional.empty();
+    }
+
+    private static ProjectDTO project(Long id) {
+        return new ProjectDTO(id, "Project " + id, null, LocalDate.now(), false);
+    }
+}
@@ -0,0 +1,53 @@
+package com.ndungutse.project_tracker.service;
+
+import com.ndungutse.project_tracker.model.Project;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ProjectCursorTest {
+
+    @Test
+    void encodeDecode_ShouldRoundTripValuesContainingTheSeparator() {
+        Project last = Project.builder().id(42L).name("Q3 | launch").build();
+
+        ProjectCursor cursor = ProjectCursor.after(ProjectCursor.SortKey.NAME, last);
+        ProjectCursor decoded = ProjectCursor.decode(cursor.encode());
+
+        assertEquals(cursor, decoded);
+        assertEquals("Q3 | launch", decoded.value());
+    }
+
+    @Test
+    void after_ShouldKeepAnEmptyNameApartFromAMissingOne() {
+        ProjectCursor empty = ProjectCursor.decode(
+                ProjectCursor.after(ProjectCursor.SortKey.NAME, Project.builder().id(1L).name("").build()).encode());
+        ProjectCursor missing = ProjectCursor.decode(
+                ProjectCursor.after(ProjectCursor.SortKey.NAME, Project.builder().id(1L).build()).encode());
+
+        assertEquals("", empty.value());
+        assertNotNull(empty.remainderSpecification());
+        assertNull(missing.value());
+        // Rows without a name come last, so a cursor among them has nothing after that range
+        assertNull(missing.remainderSpecification());
+    }
+
+    @Test
+    void after_WithDeadlineAndStatusSorts_ShouldKeepTheSortValue() {
+        Project last = Project.builder().id(7L).deadline(LocalDate.of(2025, 6, 30)).status(true).build();
+
+        assertEquals("2025-06-30",
+                ProjectCursor.decode(ProjectCursor.after(ProjectCursor.SortKey.DEADLINE, last).encode()).value());
+        assertEquals("true",
+                ProjectCursor.decode(ProjectCursor.after(ProjectCursor.SortKey.STATUS, last).encode()).value());
+        assertNull(ProjectCursor.after(ProjectCursor.SortKey.ID, last).value());
+    }
+
+    @Test
+    void decode_WithTamperedCursorOrUnknownSort_ShouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> ProjectCursor.decode("not-a-cursor"));
+        assertThrows(IllegalArgumentException.class, () -> ProjectCursor.SortKey.from("description"));
+    }
+}
@@ -0,0 +1,127 @@
+package com.ndungutse.project_tracker.service;
+
+import com.ndungutse.project_tracker.dto.ProjectDTO;
+import com.ndungutse.project_tracker.dto.ProjectDeletionJob;
+import com.ndungutse.project_tracker.model.Project;
+import com.ndungutse.project_tracker.repository.ProjectRepository;
+import com.ndungutse.project_tracker.repository.TaskRepository;
+import com.ndungutse.project_tracker.repository.TaskState;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ProjectDeletionServiceTest {
+
+    @Mock
+    private ProjectRepository projectRepository;
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private AuditService auditService;
+
+    @Mock
+    private ProjectStatsService projectStatsService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ProjectDeletionService projectDeletionService;
+    private Project project;
+
+    @BeforeEach
+    void setUp() {
+        projectDeletionService = new ProjectDeletionService(projectRepository, taskRepository, auditService,
+                new ProjectCache(new SimpleMeterRegistry(), 100, 60_000, 60_000), projectStatsService, transactionManager,
+                2, 4, 60);
+        project = new Project();
+        project.setId(1L);
+        project.setName("Release");
+        project.setDeadline(LocalDate.now().plusDays(30));
+    }
+
+    private static List<TaskState> removed(int count) {
+        return Collections.nCopies(count, new TaskState(1L, 5L, false));
+    }
+
+    @AfterEach
+    void tearDown() {
+        projectDeletionService.shutdown();
+    }
+
+    @Test
+    void delete_ShouldRemoveTasksInChunksThenTheProjectAndAuditOnce() {
+        when(projectRepository.findById(1L)).thenReturn(Optional.of(project));
+        when(taskRepository.deleteChunkByProjectId(1L, 2)).thenReturn(removed(2), removed(2), removed(1));
+        when(projectRepository.lockById(1L)).thenReturn(Optional.of(1L));
+        when(taskRepository.deleteAllByProjectId(1L)).thenReturn(0);
+
+        Optional<Long> deleted = projectDeletionService.delete(1L);
+
+        assertEquals(Optional.of(5L), deleted);
+        InOrder inOrder = inOrder(taskRepository, projectStatsService, projectRepository, auditService);
+        inOrder.verify(taskRepository).deleteChunkByProjectId(1L, 2);
+        inOrder.verify(projectStatsService).apply(removed(2), List.of());
+        inOrder.verify(taskRepository).deleteChunkByProjectId(1L, 2);
+        inOrder.verify(projectStatsService).apply(removed(2), List.of());
+        inOrder.verify(taskRepository).deleteChunkByProjectId(1L, 2);
+        inOrder.verify(projectStatsService).apply(removed(1), List.of());
+        inOrder.verify(projectRepository).lockById(1L);
+        inOrder.verify(projectRepository).deleteRowById(1L);
+        inOrder.verify(auditService).logDeleteAction("Project", 1L, "dummy_user",
+                new ProjectDeletionService.DeletedProject(ProjectDTO.fromEntity(project), 5L));
+        // One transaction per chunk plus the final one
+        verify(transactionManager, times(4)).commit(any());
+        verify(projectRepository, never()).deleteById(anyLong());
+    }
+
+    @Test
+    void delete_WhenProjectDoesNotExist_ShouldDeleteNothing() {
+        when(projectRepository.findById(1L)).thenReturn(Optional.empty());
+
+        assertTrue(projectDeletionService.delete(1L).isEmpty());
+
+        verifyNoInteractions(taskRepository, projectStatsService, auditService);
+        verify(projectRepository, never()).deleteRowById(anyLong());
+    }
+
+    @Test
+    void start_ShouldDeleteInBackgroundAndTrackTheJob() throws InterruptedException {
+        when(projectRepository.findById(1L)).thenReturn(Optional.of(project));
+        when(taskRepository.deleteChunkByProjectId(1L, 2)).thenReturn(removed(1));
+        when(projectRepository.lockById(1L)).thenReturn(Optional.of(1L));
+
+        ProjectDeletionJob job = projectDeletionService.start(1L);
+        assertEquals(1L, job.projectId());
+
+        ProjectDeletionJob current = job;
+        for (int i = 0; i < 100 && !current.isFinished(); i++) {
+            Thread.sleep(20);
+            current = projectDeletionService.getJob(job.id()).orElseThrow();
+        }
+
+        assertEquals(ProjectDeletionJob.Status.COMPLETED, current.status());
+        assertEquals(1L, current.deletedTasks());
+        assertNotNull(current.finishedAt());
+        verify(auditService).logDeleteAction(eq("Project"), eq(1L), eq("dummy_user"), any());
+    }
+}
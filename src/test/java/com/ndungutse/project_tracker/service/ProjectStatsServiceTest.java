@@ -0,0 +1,102 @@
+package com.ndungutse.project_tracker.service;
+
+import com.ndungutse.project_tracker.dto.ProjectStatsDTO;
+import com.ndungutse.project_tracker.dto.TaskRollup;
+import com.ndungutse.project_tracker.repository.ProjectStatsRepository;
+import com.ndungutse.project_tracker.repository.ProjectStatsRepository.AssigneeDelta;
+import com.ndungutse.project_tracker.repository.ProjectStatsRepository.ProjectDelta;
+import com.ndungutse.project_tracker.repository.TaskState;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ProjectStatsServiceTest {
+
+    @Mock
+    private ProjectStatsRepository projectStatsRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ProjectStatsService projectStatsService;
+
+    @BeforeEach
+    void setUp() {
+        projectStatsService = new ProjectStatsService(projectStatsRepository, transactionManager, new SimpleMeterRegistry(), 500);
+    }
+
+    @Test
+    void apply_ShouldSumDeltasPerProjectAndAssigneeInKeyOrder() {
+        TaskState open = new TaskState(2L, 5L, false);
+        TaskState completed = new TaskState(2L, 5L, true);
+        TaskState created = new TaskState(1L, 6L, false);
+
+        projectStatsService.apply(List.of(open), List.of(completed, created));
+
+        verify(projectStatsRepository).applyDeltas(
+                List.of(new ProjectDelta(1L, 1, 0), new ProjectDelta(2L, 0, 1)),
+                List.of(new AssigneeDelta(1L, 6L, 1), new AssigneeDelta(2L, 5L, -1)));
+    }
+
+    @Test
+    void apply_WhenOnlyTheAssigneeChanges_ShouldStillWriteTheProjectRowFirst() {
+        TaskState before = new TaskState(1L, 5L, false);
+        TaskState after = new TaskState(1L, 6L, false);
+
+        projectStatsService.taskUpdated(before, after);
+
+        verify(projectStatsRepository).applyDeltas(
+                List.of(new ProjectDelta(1L, 0, 0)),
+                List.of(new AssigneeDelta(1L, 5L, -1), new AssigneeDelta(1L, 6L, 1)));
+    }
+
+    @Test
+    void apply_WhenNothingCountedChanges_ShouldNotWrite() {
+        TaskState state = new TaskState(1L, 5L, true);
+
+        projectStatsService.taskUpdated(state, state);
+
+        verify(projectStatsRepository, never()).applyDeltas(any(), any());
+    }
+
+    @Test
+    void getStats_ShouldDeriveOpenTasksAndCompletion() {
+        when(projectStatsRepository.findCounts(1L, LocalDate.now())).thenReturn(Optional.of(new ProjectStatsRepository.Counts(4, 1, 2)));
+        when(projectStatsRepository.findOpenTasksByAssignee(1L)).thenReturn(Map.of(5L, 3L));
+
+        ProjectStatsDTO stats = projectStatsService.getStats(1L).orElseThrow();
+
+        assertEquals(3, stats.getOpenTasks());
+        assertEquals(25.0, stats.getCompletionPercent());
+        assertEquals(Map.of(5L, 3L), stats.getOpenTasksByAssignee());
+    }
+
+    @Test
+    void getRollups_ShouldKeyRollupsByProject() {
+        TaskRollup rollup = new TaskRollup(1L, 3L, 1L, 2L, LocalDate.now().minusDays(2));
+        when(projectStatsRepository.findRollups(List.of(1L), LocalDate.now())).thenReturn(List.of(rollup));
+
+        assertEquals(Map.of(1L, rollup), projectStatsService.getRollups(List.of(1L)));
+    }
+
+    @Test
+    void getRollups_WithNoProjects_ShouldNotQuery() {
+        assertEquals(Map.of(), projectStatsService.getRollups(List.of()));
+
+        verifyNoInteractions(projectStatsRepository);
+    }
+}
@@ -0,0 +1,101 @@
+package com.ndungutse.project_tracker.service;
+
+import com.ndungutse.project_tracker.model.RefreshToken;
+import com.ndungutse.project_tracker.model.User;
+import com.ndungutse.project_tracker.repository.RefreshTokenRepository;
+import com.ndungutse.project_tracker.security.TokenRevocationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.BadCredentialsException;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class RefreshTokenServiceTest {
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+
+    private RefreshTokenService refreshTokenService;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        refreshTokenService = new RefreshTokenService(refreshTokenRepository, tokenRevocationService, 60000, 30000);
+        user = User.builder().id(1L).username("testuser").email("test@example.com").build();
+    }
+
+    private RefreshToken storedToken(String rawToken, Instant revokedAt, Instant expiresAt) {
+        return RefreshToken.builder()
+                .id(10L)
+                .tokenHash(RefreshTokenService.hash(rawToken))
+                .familyId("family-1")
+                .user(user)
+                .createdAt(Instant.now())
+                .expiresAt(expiresAt)
+                .revokedAt(revokedAt)
+                .build();
+    }
+
+    @Test
+    void issue_ShouldStoreOnlyTheDigest() {
+        String token = refreshTokenService.issue(user).token();
+
+        ArgumentCaptor<RefreshToken> captor = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository).save(captor.capture());
+        assertEquals(RefreshTokenService.hash(token), captor.getValue().getTokenHash());
+        assertNotEquals(token, captor.getValue().getTokenHash());
+    }
+
+    @Test
+    void rotate_WithActiveToken_ShouldIssueNewTokenInSameFamily() {
+        RefreshToken current = storedToken("raw", null, Instant.now().plusSeconds(60));
+        when(refreshTokenRepository.findByTokenHash(current.getTokenHash())).thenReturn(Optional.of(current));
+        when(refreshTokenRepository.revokeIfActive(eq(10L), any())).thenReturn(1);
+
+        RefreshTokenService.IssuedToken rotation = refreshTokenService.rotate("raw");
+
+        assertNotEquals("raw", rotation.token());
+        assertEquals("family-1", rotation.familyId());
+        assertSame(user, rotation.user());
+        verify(refreshTokenRepository, never()).revokeFamily(any(), any());
+    }
+
+    @Test
+    void rotate_WithReusedToken_ShouldRevokeFamilyAndItsSessionId() {
+        RefreshToken current = storedToken("raw", Instant.now(), Instant.now().plusSeconds(60));
+        when(refreshTokenRepository.findByTokenHash(current.getTokenHash())).thenReturn(Optional.of(current));
+        Instant before = Instant.now();
+
+        assertThrows(BadCredentialsException.class, () -> refreshTokenService.rotate("raw"));
+
+        verify(refreshTokenRepository).revokeFamily(eq("family-1"), any());
+        // The sid stays revoked until every access token issued under it has expired
+        verify(tokenRevocationService).revoke(eq("family-1"),
+                argThat(expiresAt -> !expiresAt.isBefore(before.plusMillis(30000))));
+        verify(refreshTokenRepository, never()).save(any());
+    }
+
+    @Test
+    void rotate_WithExpiredToken_ShouldThrow() {
+        RefreshToken current = storedToken("raw", null, Instant.now().minusSeconds(1));
+        when(refreshTokenRepository.findByTokenHash(current.getTokenHash())).thenReturn(Optional.of(current));
+
+        assertThrows(BadCredentialsException.class, () -> refreshTokenService.rotate("raw"));
+
+        verify(refreshTokenRepository, never()).revokeFamily(any(), any());
+        verify(tokenRevocationService, never()).revoke(any(), any());
+    }
+}
@@ -0,0 +1,73 @@
+package com.ndungutse.project_tracker.service;
+
+import com.ndungutse.project_tracker.model.Role;
+import com.ndungutse.project_tracker.repository.RoleRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class RoleRegistryTest {
+
+    @Mock
+    private RoleRepository roleRepository;
+
+    private RoleRegistry roleRegistry;
+
+    @BeforeEach
+    void setUp() {
+        roleRegistry = new RoleRegistry(roleRepository, 60_000);
+        when(roleRepository.findAll()).thenReturn(List.of(
+                Role.builder().id(1L).roleName("ADMIN").build(),
+                Role.builder().id(4L).roleName("CONTRACTOR").build()));
+        roleRegistry.load();
+    }
+
+    @Test
+    void lookups_ShouldBeAnsweredFromSnapshot() {
+        Role byName = roleRegistry.findByName("CONTRACTOR").orElseThrow();
+        Role byId = roleRegistry.findById(4L).orElseThrow();
+
+        assertSame(byName, byId);
+        assertSame(byName, roleRegistry.findByName("CONTRACTOR").orElseThrow());
+        verify(roleRepository, times(1)).findAll();
+    }
+
+    @Test
+    void findByName_WhenMissingWithinTheInterval_ShouldNotReload() {
+        assertTrue(roleRegistry.findByName("UNKNOWN").isEmpty());
+        assertTrue(roleRegistry.findById(9L).isEmpty());
+
+        verify(roleRepository, times(1)).findAll();
+    }
+
+    @Test
+    void findByName_WhenMissingAfterTheInterval_ShouldReloadOnce() {
+        RoleRegistry unthrottled = new RoleRegistry(roleRepository, 0);
+        unthrottled.load();
+        clearInvocations(roleRepository);
+
+        assertTrue(unthrottled.findByName("UNKNOWN").isEmpty());
+
+        verify(roleRepository, times(1)).findAll();
+    }
+
+    @Test
+    void refreshAfterCommit_WithoutTransaction_ShouldReloadImmediately() {
+        when(roleRepository.findAll()).thenReturn(List.of(
+                Role.builder().id(1L).roleName("ADMIN").build(),
+                Role.builder().id(5L).roleName("AUDITOR").build()));
+
+        roleRegistry.refreshAfterCommit();
+
+        assertTrue(roleRegistry.findById(5L).isPresent());
+        assertEquals(List.of("ADMIN", "AUDITOR"), roleRegistry.findAll().stream().map(Role::getRoleName).sorted().toList());
+    }
+}
@@ -0,0 +1,51 @@
+package com.ndungutse.project_tracker.service;
+
+import com.ndungutse.project_tracker.model.Task;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TaskCursorTest {
+
+    @Test
+    void encodeDecode_ShouldRoundTrip() {
+        Task last = Task.builder().id(42L).dueDate(LocalDate.of(2025, 1, 31)).build();
+
+        TaskCursor cursor = TaskCursor.after(TaskCursor.SortKey.DUE_DATE, last);
+        TaskCursor decoded = TaskCursor.decode(cursor.encode());
+
+        assertEquals(cursor, decoded);
+        assertEquals("2025-01-31", decoded.value());
+        assertEquals(42L, decoded.id());
+    }
+
+    @Test
+    void after_WithIdSort_ShouldOnlyKeepId() {
+        Task last = Task.builder().id(7L).dueDate(LocalDate.of(2025, 1, 31)).build();
+
+        TaskCursor decoded = TaskCursor.decode(TaskCursor.after(TaskCursor.SortKey.ID, last).encode());
+
+        assertEquals(TaskCursor.SortKey.ID, decoded.sortKey());
+        assertNull(decoded.value());
+        assertEquals(7L, decoded.id());
+    }
+
+    @Test
+    void remainderSpecification_ShouldOnlyFollowACursorWithADueDate() {
+        Task dated = Task.builder().id(1L).dueDate(LocalDate.of(2025, 1, 31)).build();
+        Task undated = Task.builder().id(2L).build();
+
+        assertNotNull(TaskCursor.after(TaskCursor.SortKey.DUE_DATE, dated).remainderSpecification());
+        // Tasks without a due date come last, so a cursor among them has nothing after that range
+        assertNull(TaskCursor.after(TaskCursor.SortKey.DUE_DATE, undated).remainderSpecification());
+        assertNull(TaskCursor.after(TaskCursor.SortKey.ID, dated).remainderSpecification());
+    }
+
+    @Test
+    void decode_WithTamperedCursor_ShouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> TaskCursor.decode("not-a-cursor"));
+        assertThrows(IllegalArgumentException.class, () -> TaskCursor.SortKey.from("title"));
+    }
+}
@@ -0,0 +1,62 @@
+package com.ndungutse.project_tracker.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.ndungutse.project_tracker.model.Task;
+import com.ndungutse.project_tracker.repository.TaskRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TaskExportServiceTest {
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private TaskExportService taskExportService;
+
+    @BeforeEach
+    void setUp() {
+        taskExportService = new TaskExportService(taskRepository, entityManager,
+                new ObjectMapper().registerModule(new JavaTimeModule()), transactionManager);
+    }
+
+    @Test
+    void exportNdjson_ShouldWriteOneLinePerTaskAndClearBetweenFetches() throws Exception {
+        int rows = TaskRepository.STREAM_FETCH_SIZE * 2 + 1;
+        AtomicBoolean closed = new AtomicBoolean();
+        when(taskRepository.streamAll()).thenReturn(LongStream.rangeClosed(1, rows)
+                .mapToObj(id -> Task.builder().id(id).title("Task " + id).build())
+                .onClose(() -> closed.set(true)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long written = taskExportService.exportNdjson(out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(rows, written);
+        assertEquals(rows, lines.length);
+        assertTrue(lines[0].startsWith("{\"id\":1,"));
+        assertTrue(closed.get());
+        verify(entityManager, times(2)).clear();
+        verify(transactionManager).commit(any());
+    }
+}
@@ -1,22 +1,37 @@
 package com.ndungutse.project_tracker.service;
 
+import com.ndungutse.project_tracker.dto.CursorPage;
 import com.ndungutse.project_tracker.dto.ProjectDTO;
+import com.ndungutse.project_tracker.dto.SideLoaded;
+import com.ndungutse.project_tracker.dto.TaskBatchResult;
+import com.ndungutse.project_tracker.dto.TaskBulkUpdateRequest;
+import com.ndungutse.project_tracker.dto.TaskBulkUpdateResult;
 import com.ndungutse.project_tracker.dto.TaskDTO;
+import com.ndungutse.project_tracker.dto.TaskSearchCriteria;
+import com.ndungutse.project_tracker.dto.TaskView;
 import com.ndungutse.project_tracker.dto.UserDTO;
 import com.ndungutse.project_tracker.model.Project;
 import com.ndungutse.project_tracker.model.Task;
 import com.ndungutse.project_tracker.model.User;
 import com.ndungutse.project_tracker.repository.TaskRepository;
+import com.ndungutse.project_tracker.repository.TaskRepositoryCustom;
+import com.ndungutse.project_tracker.repository.TaskState;
+import com.ndungutse.project_tracker.security.SecurityUtil;
+import com.ndungutse.project_tracker.security.UserPrincipal;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.jpa.domain.Specification;
 
-import java.util.Arrays;
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -34,6 +49,15 @@ public class TaskServiceTest {
     @Mock
     private UserService userService;
 
+    @Mock
+    private SecurityUtil securityUtil;
+
+    @Mock
+    private AuditService auditService;
+
+    @Mock
+    private ProjectStatsService projectStatsService;
+
     @InjectMocks
     private TaskService taskService;
 
@@ -85,11 +109,11 @@ public class TaskServiceTest {
     @Test
     void getTasksByUser_ShouldReturnUserTasks() {
         // Arrange
-        List<Task> tasks = Arrays.asList(task);
-        when(taskRepository.findByAssignedUserId(1L)).thenReturn(tasks);
+        when(userService.exists(1L)).thenReturn(true);
+        doReturn(List.of(task)).when(taskRepository).findBy(any(Specification.class), any());
 
         // Act
-        List<TaskDTO> result = taskService.getTasksByUser(1L);
+        List<TaskDTO> result = taskService.getTasksByUser(1L, null, null, null, TaskView.COMPACT).getContent();
 
         // Assert
         assertNotNull(result);
@@ -97,18 +121,17 @@ public class TaskServiceTest {
         assertEquals(task.getId(), result.get(0).getId());
         assertEquals(task.getTitle(), result.get(0).getTitle());
         assertEquals(task.getAssignedUser().getId(), result.get(0).getAssignedUserId());
-        verify(taskRepository, times(1)).findByAssignedUserId(1L);
+        verify(taskRepository, times(1)).findBy(any(Specification.class), any());
     }
 
     @Test
     void getTasksByProject_ShouldReturnProjectTasks() {
         // Arrange
-        List<Task> tasks = Arrays.asList(task);
-        when(taskRepository.findByProjectId(1L)).thenReturn(tasks);
-        when(projectService.exists(1L)).thenReturn(true);
+        when(projectService.getById(1L)).thenReturn(Optional.of(projectDTO));
+        doReturn(List.of(task)).when(taskRepository).findBy(any(Specification.class), any());
 
         // Act
-        List<TaskDTO> result = taskService.getTasksByProject(1L);
+        List<TaskDTO> result = taskService.getTasksByProject(1L, null, null, null, TaskView.COMPACT).getContent();
 
         // Assert
         assertNotNull(result);
@@ -116,17 +139,50 @@ public class TaskServiceTest {
         assertEquals(task.getId(), result.get(0).getId());
         assertEquals(task.getTitle(), result.get(0).getTitle());
         assertEquals(task.getProject().getId(), result.get(0).getProjectId());
-        verify(taskRepository, times(1)).findByProjectId(1L);
+    }
+
+    @Test
+    void getTasksByProject_WithCursorAndExistingProject_ShouldReturnSlice() {
+        when(projectService.getById(1L)).thenReturn(Optional.of(projectDTO));
+        doReturn(List.of(task)).when(taskRepository).findBy(any(Specification.class), any());
+
+        CursorPage<TaskDTO> result = taskService.getTasksByProject(1L, null, 10, "id", TaskView.COMPACT);
+
+        assertEquals(1, result.getContent().size());
+        assertEquals(task.getId(), result.getContent().get(0).getId());
+        assertFalse(result.isHasNext());
+    }
+
+    @Test
+    void getAll_WithDueDateCursor_ShouldContinueIntoTasksWithoutDueDate() {
+        Task undated = Task.builder().id(9L).title("Undated").build();
+        String cursor = TaskCursor.after(TaskCursor.SortKey.DUE_DATE,
+                Task.builder().id(3L).dueDate(LocalDate.of(2025, 1, 31)).build()).encode();
+        doReturn(List.of(task), List.of(undated)).when(taskRepository).findBy(any(Specification.class), any());
+
+        CursorPage<TaskDTO> result = taskService.getAll(cursor, 10, "dueDate", TaskView.COMPACT);
+
+        assertEquals(List.of(task.getId(), 9L), result.getContent().stream().map(TaskDTO::getId).toList());
+        verify(taskRepository, times(2)).findBy(any(Specification.class), any());
+    }
+
+    @Test
+    void getTasksByProject_WithCursorAndMissingProject_ShouldReturnEmptySlice() {
+        when(projectService.getById(1L)).thenReturn(Optional.empty());
+
+        CursorPage<TaskDTO> result = taskService.getTasksByProject(1L, null, 10, "id", TaskView.COMPACT);
+
+        assertTrue(result.getContent().isEmpty());
+        verify(taskRepository, never()).findBy(any(Specification.class), any());
     }
 
     @Test
     void getTasksByStatus_ShouldReturnTasksWithStatus() {
         // Arrange
-        List<Task> tasks = Arrays.asList(task);
-        when(taskRepository.findByStatus(false)).thenReturn(tasks);
+        doReturn(List.of(task)).when(taskRepository).findBy(any(Specification.class), any());
 
         // Act
-        List<TaskDTO> result = taskService.getTasksByStatus(false);
+        List<TaskDTO> result = taskService.getTasksByStatus(false, null, null, null, TaskView.COMPACT).getContent();
 
         // Assert
         assertNotNull(result);
@@ -134,16 +190,29 @@ public class TaskServiceTest {
         assertEquals(task.getId(), result.get(0).getId());
         assertEquals(task.getTitle(), result.get(0).getTitle());
         assertEquals(task.isStatus(), result.get(0).isStatus());
-        verify(taskRepository, times(1)).findByStatus(false);
+    }
+
+    @Test
+    void getTasksByStatus_WithoutPageSize_ShouldReturnOnlyTheDefaultPage() {
+        List<Task> rows = new ArrayList<>();
+        for (long id = 1; id <= 21; id++) {
+            rows.add(Task.builder().id(id).title("Task " + id).build());
+        }
+        doReturn(rows).when(taskRepository).findBy(any(Specification.class), any());
+
+        CursorPage<TaskDTO> result = taskService.getTasksByStatus(true, null, null, null, TaskView.COMPACT);
+
+        assertEquals(20, result.getContent().size());
+        assertTrue(result.isHasNext());
+        assertEquals(20L, TaskCursor.decode(result.getNextCursor()).id());
     }
 
     @Test
     void createTask_WithValidData_ShouldCreateTask() {
         // Arrange
-        when(projectService.exists(1L)).thenReturn(true);
-        when(userService.exists(1L)).thenReturn(true);
-        when(projectService.getById(1L)).thenReturn(Optional.of(projectDTO));
-        when(userService.getUserById(1L)).thenReturn(Optional.of(userDTO));
+        when(taskRepository.existsProjectAndUser(1L, 1L)).thenReturn(true);
+        when(projectService.getReference(1L)).thenReturn(project);
+        when(userService.getReference(1L)).thenReturn(user);
         when(taskRepository.save(any(Task.class))).thenReturn(task);
 
         // Act
@@ -155,17 +224,24 @@ public class TaskServiceTest {
         assertEquals(task.getTitle(), result.get().getTitle());
         assertEquals(task.getAssignedUser().getId(), result.get().getAssignedUserId());
         verify(taskRepository, times(1)).save(any(Task.class));
+        verify(projectService, never()).getById(any());
+        verify(userService, never()).getUserById(any());
+    }
+
+    @Test
+    void createTask_WithMissingReference_ShouldReturnEmpty() {
+        when(taskRepository.existsProjectAndUser(1L, 1L)).thenReturn(false);
+
+        assertTrue(taskService.create(taskDTO).isEmpty());
+        verify(taskRepository, never()).save(any(Task.class));
     }
 
     @Test
     void updateTask_WithValidData_ShouldUpdateTask() {
         // Arrange
-        when(taskRepository.existsById(1L)).thenReturn(true);
-        when(projectService.exists(1L)).thenReturn(true);
-        when(userService.exists(1L)).thenReturn(true);
-        when(projectService.getById(1L)).thenReturn(Optional.of(projectDTO));
-        when(userService.getUserById(1L)).thenReturn(Optional.of(userDTO));
+        when(taskRepository.findById(1L)).thenReturn(Optional.of(task));
         when(taskRepository.save(any(Task.class))).thenReturn(task);
+        TaskState before = TaskState.of(task);
 
         // Act
         Optional<TaskDTO> result = taskService.update(1L, taskDTO);
@@ -176,5 +252,81 @@ public class TaskServiceTest {
         assertEquals(task.getTitle(), result.get().getTitle());
         assertEquals(task.getAssignedUser().getId(), result.get().getAssignedUserId());
         verify(taskRepository, times(1)).save(any(Task.class));
+        verify(projectStatsService).taskUpdated(before, TaskState.of(task));
+    }
+
+    @Test
+    void createBatch_ShouldValidateReferencesOnceAndReportFailuresPerItem() {
+        TaskDTO valid = new TaskDTO("Valid", "Description", false, null, 1L, 1L);
+        TaskDTO missingProject = new TaskDTO("No project", "Description", false, null, 2L, null);
+        TaskDTO missingUser = new TaskDTO("No user", "Description", false, null, 1L, 3L);
+        when(projectService.findExistingIds(Set.of(1L, 2L))).thenReturn(Set.of(1L));
+        when(userService.findExistingIds(Set.of(1L, 3L))).thenReturn(Set.of(1L));
+        when(projectService.getReference(1L)).thenReturn(project);
+        when(userService.getReference(1L)).thenReturn(user);
+        when(taskRepository.saveAll(any())).thenReturn(List.of(task));
+
+        TaskBatchResult result = taskService.createBatch(List.of(valid, missingProject, missingUser));
+
+        assertEquals(1, result.getCreated());
+        assertEquals(2, result.getFailed());
+        assertEquals(1L, result.getItems().get(0).id());
+        assertEquals("Project not found with id: 2", result.getItems().get(1).error());
+        assertEquals("User not found with id: 3", result.getItems().get(2).error());
+        verify(projectService, never()).exists(any());
+        verify(userService, never()).getUserById(any());
+    }
+
+    @Test
+    void bulkUpdate_AsDeveloper_ShouldOnlyUpdateOwnTasks() {
+        TaskBulkUpdateRequest request = new TaskBulkUpdateRequest(List.of(1L, 2L, 3L), null, true, null, null);
+        when(securityUtil.validateTaskUpdateRole()).thenReturn(new UserPrincipal(7L, "developer", "DEVELOPER", 0));
+        TaskState before = new TaskState(1L, 7L, false);
+        TaskState after = new TaskState(1L, 7L, true);
+        when(taskRepository.bulkUpdate(request, 7L)).thenReturn(List.of(
+                new TaskRepositoryCustom.UpdatedTask(1L, before, after),
+                new TaskRepositoryCustom.UpdatedTask(3L, before, after)));
+
+        TaskBulkUpdateResult result = taskService.bulkUpdate(request);
+
+        assertEquals(3, result.getRequested());
+        assertEquals(2, result.getUpdated());
+        verify(auditService).logUpdateActions("Task", List.of(1L, 3L), "developer", request);
+        verify(projectStatsService).apply(List.of(before, before), List.of(after, after));
+    }
+
+    @Test
+    void bulkUpdate_WithoutChanges_ShouldThrow() {
+        TaskBulkUpdateRequest request = new TaskBulkUpdateRequest(List.of(1L), null, null, null, null);
+        when(securityUtil.validateTaskUpdateRole()).thenReturn(new UserPrincipal(1L, "admin", "ADMIN", 0));
+
+        assertThrows(IllegalArgumentException.class, () -> taskService.bulkUpdate(request));
+        verify(taskRepository, never()).bulkUpdate(any(), any());
+    }
+
+    @Test
+    void search_WithReversedDueDateRange_ShouldThrow() {
+        TaskSearchCriteria criteria = new TaskSearchCriteria(null, null, null,
+                LocalDate.of(2025, 2, 1), LocalDate.of(2025, 1, 1), null);
+
+        assertThrows(IllegalArgumentException.class, () -> taskService.search(criteria, null, null, null, TaskView.COMPACT));
+        verifyNoInteractions(taskRepository);
+    }
+
+    @Test
+    void sideLoad_ShouldLoadEachReferencedProjectAndUserOnce() {
+        TaskDTO first = new TaskDTO("First", "", false, null, 1L, 5L);
+        TaskDTO second = new TaskDTO("Second", "", false, null, 1L, 6L);
+        TaskDTO unassigned = new TaskDTO("Third", "", false, null, 1L, null);
+        ProjectDTO projectDTO = new ProjectDTO(1L, "Project", "", null, false);
+        when(projectService.getByIds(Set.of(1L))).thenReturn(Map.of(1L, projectDTO));
+        when(userService.getUsersByIds(Set.of(5L, 6L))).thenReturn(Map.of());
+
+        SideLoaded.Included included = taskService.sideLoad(List.of(first, second, unassigned),
+                TaskView.of(null, null, TaskView.SHAPE_NORMALIZED));
+
+        assertEquals(Map.of(1L, projectDTO), included.projects());
+        verify(projectService, times(1)).getByIds(any());
+        verify(userService, times(1)).getUsersByIds(any());
     }
-}
\ No newline at end of file
+}
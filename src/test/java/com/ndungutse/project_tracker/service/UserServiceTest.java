@@ -0,0 +1,131 @@
+package com.ndungutse.project_tracker.service;
+
+import com.ndungutse.project_tracker.dto.UpdateUserRequest;
+import com.ndungutse.project_tracker.model.Role;
+import com.ndungutse.project_tracker.model.User;
+import com.ndungutse.project_tracker.repository.UserRepository;
+import com.ndungutse.project_tracker.security.CustomUserDetailsService;
+import com.ndungutse.project_tracker.security.PasswordHashingExecutor;
+import com.ndungutse.project_tracker.security.RoleVersionRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class UserServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private RoleRegistry roleRegistry;
+
+    @Mock
+    private PasswordHashingExecutor passwordHashingExecutor;
+
+    @Mock
+    private RoleVersionRegistry roleVersionRegistry;
+
+    @Mock
+    private CustomUserDetailsService userDetailsService;
+
+    @Mock
+    private SessionService sessionService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private UserService userService;
+
+    private Role developer;
+    private Role manager;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        developer = Role.builder().id(1L).roleName("ROLE_DEVELOPER").build();
+        manager = Role.builder().id(2L).roleName("ROLE_MANAGER").build();
+        user = User.builder().id(5L).username("dev").email("dev@example.com").role(developer).build();
+    }
+
+    @Test
+    void updateUser_WhenRoleChanges_ShouldBumpVersionAndRevokeSessions() {
+        UpdateUserRequest request = new UpdateUserRequest();
+        request.setRoleId(2L);
+        when(userRepository.findById(5L)).thenReturn(Optional.of(user));
+        when(roleRegistry.findById(2L)).thenReturn(Optional.of(manager));
+        when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        assertTrue(userService.updateUser(5L, request).isPresent());
+
+        assertEquals(1L, user.getRoleVersion());
+        verify(roleVersionRegistry).roleChanged(5L, 1L);
+        verify(sessionService).revokeAllForUser(5L);
+    }
+
+    @Test
+    void updateUser_WithoutRoleOrPasswordChange_ShouldKeepSessions() {
+        UpdateUserRequest request = new UpdateUserRequest();
+        request.setRoleId(1L);
+        when(userRepository.findById(5L)).thenReturn(Optional.of(user));
+        when(roleRegistry.findById(1L)).thenReturn(Optional.of(developer));
+        when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        userService.updateUser(5L, request);
+
+        verifyNoInteractions(sessionService, roleVersionRegistry);
+    }
+
+    @Test
+    void updateUser_WithPassword_ShouldHashBeforeTheTransactionStarts() {
+        UpdateUserRequest request = new UpdateUserRequest();
+        request.setPassword("new-secret");
+        when(passwordHashingExecutor.encode("new-secret")).thenReturn("hash");
+        when(userRepository.findById(5L)).thenReturn(Optional.of(user));
+        when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        userService.updateUser(5L, request);
+
+        assertEquals("hash", user.getPassword());
+        InOrder inOrder = inOrder(passwordHashingExecutor, transactionManager, userRepository);
+        inOrder.verify(passwordHashingExecutor).encode("new-secret");
+        inOrder.verify(transactionManager).getTransaction(any());
+        inOrder.verify(userRepository).save(user);
+        verify(sessionService).revokeAllForUser(5L);
+    }
+
+    @Test
+    void deleteUser_ShouldRevokeSessionsBeforeDeleting() {
+        when(userRepository.findById(5L)).thenReturn(Optional.of(user));
+
+        userService.deleteUser(5L);
+
+        InOrder inOrder = inOrder(sessionService, userRepository);
+        inOrder.verify(sessionService).revokeAllForUser(5L);
+        inOrder.verify(userRepository).delete(user);
+    }
+
+    @Test
+    void roleRenamed_ShouldBumpHoldersAndRevokeTheirSessions() {
+        when(userRepository.findIdsByRoleId(1L)).thenReturn(List.of(5L, 6L));
+
+        userService.roleRenamed(1L);
+
+        verify(userRepository).incrementRoleVersionByRoleId(1L);
+        verify(sessionService).revokeAllForUser(5L);
+        verify(sessionService).revokeAllForUser(6L);
+    }
+}